@@ -1,10 +1,30 @@
 package ru.practicum;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+/**
+ * Same as {@code @SpringBootApplication}, except that the stats engine is left out of the scan:
+ * it is only picked up by {@link ru.practicum.statistics.config.EmbeddedStatisticsConfig}. Repositories and entities
+ * are limited to the main-server packages too, since the default JPA scan would start from {@code ru.practicum}
+ * and map the stats engine's {@code Hit} and its repository in every mode.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "ru\\.practicum\\.stats\\..*")})
+@EnableJpaRepositories("ru.practicum.repositories")
+@EntityScan("ru.practicum.models")
 @Primary
 public class MainServerApp {
     public static void main(String[] args) {
@@ -0,0 +1,346 @@
+package ru.practicum.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.dto.events.EventAvailabilityDto;
+import ru.practicum.errors.exceptions.NotFoundException;
+import ru.practicum.repositories.RequestCount;
+import ru.practicum.repositories.RequestRepository;
+import ru.practicum.repositories.events.EventParticipantLimit;
+import ru.practicum.repositories.events.EventRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the confirmed request count and participant limit of an event to the clients watching it.
+ * A stream is a servlet async response, so idle clients hold no thread. Writers call {@link #changedAfterCommit};
+ * changed events are collected until the dispatcher thread runs, read with one query per batch and serialized once.
+ * Each frame is only sent when it differs from the previous one. Events are also read again every few seconds, which
+ * covers writes made on other nodes.
+ * <p>
+ * The dispatcher never writes to a client itself: it hands the frame to every stream, and a bounded pool of sender
+ * threads writes it. A stream keeps only its latest unsent frame, so a slow client skips intermediate values instead
+ * of queueing them, and a stream whose write has been blocked for longer than the send timeout is completed and
+ * dropped. A client may receive the same frame twice right after connecting, when an update is pushed while its
+ * initial frame is being read; every frame carries the full state, so clients just take the latest one.
+ */
+@Slf4j
+@Component
+public class AvailabilityBroadcaster implements MeterBinder {
+    private static final String EVENT_NAME = "availability";
+    private static final int READ_BATCH = 1000;
+
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTemplate;
+    private final long streamTimeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Map<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicInteger streams = new AtomicInteger();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger senderNumber = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-availability");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AvailabilityBroadcaster(EventRepository eventRepository, RequestRepository requestRepository,
+                                   ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                   @Value("${events.availability.stream-timeout-minutes:30}") long streamTimeout,
+                                   @Value("${events.availability.resync-seconds:5}") long resyncSeconds,
+                                   @Value("${events.availability.heartbeat-seconds:30}") long heartbeatSeconds,
+                                   @Value("${events.availability.sender-threads:4}") int senderThreads,
+                                   @Value("${events.availability.send-queue:10000}") int sendQueue,
+                                   @Value("${events.availability.send-timeout-seconds:10}") long sendTimeout) {
+        this.eventRepository = eventRepository;
+        this.requestRepository = requestRepository;
+        this.objectMapper = objectMapper;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        // the count and the limit of a frame come from two queries, which must see the same snapshot
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.streamTimeoutMillis = TimeUnit.MINUTES.toMillis(streamTimeout);
+        this.sendTimeoutNanos = TimeUnit.SECONDS.toNanos(sendTimeout);
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueue), runnable -> {
+            Thread thread = new Thread(runnable, "event-availability-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::resync, resyncSeconds, resyncSeconds, TimeUnit.SECONDS);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        dispatcher.scheduleWithFixedDelay(this::dropSlowStreams, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(long eventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Stream stream = new Stream(eventId, emitter);
+        subscribers.compute(eventId, (id, watching) -> {
+            watching = (watching == null) ? new Subscribers() : watching;
+            watching.streams.put(emitter, stream);
+            return watching;
+        });
+        streams.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(eventId, emitter));
+        emitter.onTimeout(() -> unsubscribe(eventId, emitter));
+        emitter.onError(e -> unsubscribe(eventId, emitter));
+
+        String frame = readTemplate.execute(status -> read(List.of(eventId)).get(eventId));
+        if (frame == null) {
+            unsubscribe(eventId, emitter);
+            throw new NotFoundException("The event with this id does not exist!");
+        }
+        stream.sendFirst(SseEmitter.event().name(EVENT_NAME).data(frame));
+        return emitter;
+    }
+
+    /**
+     * Pushes the availability of the event to its subscribers once the current transaction commits, or right away
+     * outside one.
+     */
+    public void changedAfterCommit(long eventId) {
+        if (!subscribers.containsKey(eventId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(eventId);
+                }
+            });
+        } else {
+            schedule(eventId);
+        }
+    }
+
+    public int getStreams() {
+        return streams.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.availability.streams", streams, AtomicInteger::get)
+                .description("Open event availability streams")
+                .register(registry);
+        FunctionCounter.builder("events.availability.frames", frames, LongAdder::sum)
+                .description("Availability updates written to streams")
+                .register(registry);
+        FunctionCounter.builder("events.availability.dropped", dropped, LongAdder::sum)
+                .description("Streams dropped for a write blocked past the send timeout or a full send queue")
+                .register(registry);
+    }
+
+    private void schedule(long eventId) {
+        changed.add(eventId);
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<Long> eventIds = new ArrayList<>();
+        for (Iterator<Long> iterator = changed.iterator(); iterator.hasNext(); ) {
+            eventIds.add(iterator.next());
+            iterator.remove();
+        }
+        push(eventIds);
+    }
+
+    private void resync() {
+        List<Long> eventIds = new ArrayList<>(subscribers.keySet());
+        for (int from = 0; from < eventIds.size(); from += READ_BATCH) {
+            push(eventIds.subList(from, Math.min(from + READ_BATCH, eventIds.size())));
+        }
+    }
+
+    private void push(Collection<Long> eventIds) {
+        try {
+            Map<Long, String> read = readTemplate.execute(status -> read(eventIds));
+            for (Long eventId : eventIds) {
+                Subscribers watching = subscribers.get(eventId);
+                if (watching == null) {
+                    continue;
+                }
+                String frame = read.get(eventId);
+                if (frame == null) {
+                    watching.streams.keySet().forEach(SseEmitter::complete);
+                } else if (!frame.equals(watching.lastFrame)) {
+                    watching.lastFrame = frame;
+                    frames.add(watching.streams.size());
+                    watching.streams.values().forEach(stream ->
+                            stream.offer(SseEmitter.event().name(EVENT_NAME).data(frame)));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to push availability of events {}", eventIds, e);
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(watching -> watching.streams.values().forEach(Stream::offerHeartbeat));
+    }
+
+    private void dropSlowStreams() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(watching -> watching.streams.values().forEach(stream -> {
+            long since = stream.sendingSince;
+            if ((since != 0) && (now - since > sendTimeoutNanos)) {
+                drop(stream);
+            }
+        }));
+    }
+
+    private void drop(Stream stream) {
+        dropped.increment();
+        unsubscribe(stream.eventId, stream.emitter);
+        stream.emitter.complete();
+    }
+
+    private Map<Long, String> read(Collection<Long> eventIds) {
+        Map<Long, Long> confirmed = requestRepository.countApprovedRequests(eventIds).stream()
+                .collect(Collectors.toMap(RequestCount::getEventId, RequestCount::getCount));
+        Map<Long, String> read = new HashMap<>();
+        for (EventParticipantLimit event : eventRepository.findParticipantLimits(eventIds)) {
+            read.put(event.getId(), toJson(new EventAvailabilityDto(event.getId(),
+                    confirmed.getOrDefault(event.getId(), 0L), event.getParticipantLimit())));
+        }
+        return read;
+    }
+
+    private void unsubscribe(long eventId, SseEmitter emitter) {
+        subscribers.computeIfPresent(eventId, (id, watching) -> {
+            if (watching.streams.remove(emitter) != null) {
+                streams.decrementAndGet();
+            }
+            return watching.streams.isEmpty() ? null : watching;
+        });
+    }
+
+    private String toJson(EventAvailabilityDto availability) {
+        try {
+            return objectMapper.writeValueAsString(availability);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Subscribers {
+        private final Map<SseEmitter, Stream> streams = new ConcurrentHashMap<>();
+        private volatile String lastFrame;
+    }
+
+    /**
+     * One client with its latest unsent event; at most one thread writes to it at a time. The subscribing request
+     * thread holds that role from the start until it has written the initial frame, so pushes that arrive meanwhile
+     * wait in pending and follow it.
+     */
+    private class Stream {
+        private final long eventId;
+        private final SseEmitter emitter;
+        private final AtomicReference<SseEmitter.SseEventBuilder> pending = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(true);
+        private volatile long sendingSince;
+
+        private Stream(long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        void sendFirst(SseEmitter.SseEventBuilder event) {
+            pending.set(event);
+            flush();
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            pending.set(event);
+            schedule();
+        }
+
+        /**
+         * Sends a comment only when no frame is waiting, which would prove the client alive just as well.
+         */
+        void offerHeartbeat() {
+            if (pending.compareAndSet(null, SseEmitter.event().comment(""))) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::flush);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    drop(this);
+                }
+            }
+        }
+
+        private void flush() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.getAndSet(null)) != null) {
+                sendingSince = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(eventId, emitter);
+                    pending.set(null);
+                    emitter.completeWithError(e);
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+            scheduled.set(false);
+            if ((pending.get() != null) && subscribers.containsKey(eventId)) {
+                schedule();
+            }
+        }
+    }
+}
\ No newline at end of file
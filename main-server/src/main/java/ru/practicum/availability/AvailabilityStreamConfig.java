@@ -0,0 +1,30 @@
+package ru.practicum.availability;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Keeps open-in-view (turned off with spring.jpa.open-in-view) for every endpoint but the availability stream.
+ * An open-in-view entity manager holds its connection until the response completes, which for a stream would pin
+ * one pooled connection per subscriber.
+ */
+@Configuration
+public class AvailabilityStreamConfig implements WebMvcConfigurer {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AvailabilityStreamConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/events/*/availability/stream");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.dto.events.EventFullDto;
+import ru.practicum.states.EventState;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serialized {@link EventFullDto} of published events without their confirmed request count and views.
+ * A cached body is split around those two fields and kept with the event version it was built from, so a lookup
+ * with any other version misses; this covers writes made on other nodes and category renames. Writers on this node
+ * also evict the event after commit. When the cache is full an arbitrary entry makes room.
+ */
+@Component
+public class EventResponseCache implements MeterBinder {
+    private static final byte[] DYNAMIC_FIELDS = "\"confirmedRequests\":null,\"views\":null"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CONFIRMED_REQUESTS = "\"confirmedRequests\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VIEWS = ",\"views\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<Long, Body> bodies = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EventResponseCache(ObjectMapper objectMapper,
+                              @Value("${events.response-cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached body of the event if it was built from the given version, null otherwise.
+     */
+    public Body get(long eventId, String version) {
+        Body body = bodies.get(eventId);
+        if ((body == null) || !body.version.equals(version)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return body;
+    }
+
+    /**
+     * Serializes the event once and caches the result when the event is published.
+     */
+    public Body put(long eventId, String version, EventFullDto event) {
+        event.setConfirmedRequests(null);
+        event.setViews(null);
+        Body body = new Body(version, toJson(event));
+        if ((event.getState() == EventState.PUBLISHED) && (maxEntries > 0)) {
+            if (!bodies.containsKey(eventId) && (bodies.size() >= maxEntries)) {
+                Iterator<Long> iterator = bodies.keySet().iterator();
+                if (iterator.hasNext()) {
+                    bodies.remove(iterator.next());
+                }
+            }
+            bodies.put(eventId, body);
+        }
+        return body;
+    }
+
+    public void evictAfterCommit(Collection<Long> eventIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventIds.forEach(bodies::remove);
+                }
+            });
+        } else {
+            eventIds.forEach(bodies::remove);
+        }
+    }
+
+    public int size() {
+        return bodies.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.response-cache.size", bodies, Map::size)
+                .description("Published events with a cached response body")
+                .register(registry);
+        FunctionCounter.builder("events.response-cache.lookups", hits, LongAdder::sum)
+                .description("Event response body lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("events.response-cache.lookups", misses, LongAdder::sum)
+                .description("Event response body lookups")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private byte[] toJson(EventFullDto event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Body {
+        private final String version;
+        private final byte[] head;
+        private final byte[] tail;
+
+        private Body(String version, byte[] json) {
+            int at = indexOf(json, DYNAMIC_FIELDS);
+            if (at < 0) {
+                throw new IllegalStateException("No confirmedRequests and views fields in " +
+                        new String(json, StandardCharsets.UTF_8));
+            }
+            this.version = version;
+            this.head = new byte[at];
+            this.tail = new byte[json.length - at - DYNAMIC_FIELDS.length];
+            System.arraycopy(json, 0, head, 0, head.length);
+            System.arraycopy(json, at + DYNAMIC_FIELDS.length, tail, 0, tail.length);
+        }
+
+        /**
+         * Writes the full response with the given dynamic values into a single array.
+         */
+        public byte[] render(Long confirmedRequests, Long views) {
+            byte[] confirmed = String.valueOf(confirmedRequests).getBytes(StandardCharsets.US_ASCII);
+            byte[] viewed = String.valueOf(views).getBytes(StandardCharsets.US_ASCII);
+            byte[] response = new byte[head.length + CONFIRMED_REQUESTS.length + confirmed.length + VIEWS.length +
+                    viewed.length + tail.length];
+            int at = 0;
+            for (byte[] part : new byte[][]{head, CONFIRMED_REQUESTS, confirmed, VIEWS, viewed, tail}) {
+                System.arraycopy(part, 0, response, at, part.length);
+                at += part.length;
+            }
+            return response;
+        }
+
+        /**
+         * Field names are written unescaped, while a quote inside a string value is always preceded by a backslash,
+         * so the first match is the field itself.
+         */
+        private static int indexOf(byte[] json, byte[] part) {
+            outer:
+            for (int i = 0; i <= json.length - part.length; i++) {
+                for (int j = 0; j < part.length; j++) {
+                    if (json[i + j] != part[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+}
\ No newline at end of file
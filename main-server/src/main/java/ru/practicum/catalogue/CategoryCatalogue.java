@@ -0,0 +1,141 @@
+package ru.practicum.catalogue;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.errors.exceptions.NotFoundException;
+import ru.practicum.models.Category;
+import ru.practicum.repositories.CategoryRepository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of all categories, replaced as a whole after every committed change. Lookups of ids
+ * missing from the snapshot fall through to the database, so a category created in the current transaction
+ * or on another node that has not notified yet is still found. Every refresh takes a generation before it reads
+ * and only replaces a snapshot of an older generation, so a slow refresh never puts back categories older than
+ * the ones a later refresh has already installed.
+ */
+@Slf4j
+@Component
+public class CategoryCatalogue {
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate refreshTemplate;
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CategoryCatalogue(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.refreshTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<CategoryDto> get(int from, int size) {
+        List<CategoryDto> categories = getSnapshot().categories;
+        int offset = Math.min(from / size * size, categories.size());
+        return categories.subList(offset, Math.min(offset + size, categories.size())).stream()
+                .map(category -> new CategoryDto(category.getId(), category.getName()))
+                .collect(Collectors.toList());
+    }
+
+    public CategoryDto findById(long id) {
+        Category category = getCategory(id);
+        return new CategoryDto(category.getId(), category.getName());
+    }
+
+    /**
+     * Returns a detached category suitable as a reference from a new or updated event.
+     */
+    public Category getCategory(long id) {
+        Snapshot current = getSnapshot();
+        CategoryDto category = current.byId.get(id);
+        if (category != null) {
+            return new Category(category.getId(), category.getName(), current.versions.get(id));
+        }
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("There is no category with this id!"));
+    }
+
+    public String getETag() {
+        return getSnapshot().eTag;
+    }
+
+    /**
+     * Schedules a refresh once the current transaction commits, or refreshes right away outside one.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        long generation = generations.incrementAndGet();
+        List<Category> categories = refreshTemplate.execute(status -> categoryRepository.findAll(Sort.by("id")));
+        Snapshot next = new Snapshot(generation, categories);
+        Snapshot current = snapshot.get();
+        while ((current == null) || (current.generation < generation)) {
+            if (snapshot.compareAndSet(current, next)) {
+                log.debug("Category catalogue refreshed: {} categories", categories.size());
+                return;
+            }
+            current = snapshot.get();
+        }
+        log.debug("Category catalogue refresh {} dropped, generation {} is already installed", generation,
+                current.generation);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private static class Snapshot {
+        private final long generation;
+        private final List<CategoryDto> categories;
+        private final Map<Long, CategoryDto> byId;
+        private final Map<Long, Long> versions;
+        private final String eTag;
+
+        Snapshot(long generation, List<Category> source) {
+            this.generation = generation;
+            Map<Long, CategoryDto> categoriesById = new LinkedHashMap<>();
+            Map<Long, Long> categoryVersions = new LinkedHashMap<>();
+            long versionSum = 0;
+            long maxId = 0;
+            for (Category category : source) {
+                categoriesById.put(category.getId(), new CategoryDto(category.getId(), category.getName()));
+                categoryVersions.put(category.getId(), category.getVersion());
+                versionSum += category.getVersion();
+                maxId = Math.max(maxId, category.getId());
+            }
+            this.byId = Collections.unmodifiableMap(categoriesById);
+            this.versions = Collections.unmodifiableMap(categoryVersions);
+            this.categories = List.copyOf(categoriesById.values());
+            this.eTag = "categories-" + source.size() + "-" + versionSum + "-" + maxId;
+        }
+    }
+}
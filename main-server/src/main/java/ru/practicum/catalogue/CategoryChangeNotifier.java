@@ -0,0 +1,114 @@
+package ru.practicum.catalogue;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Keeps the category catalogues of several nodes coherent through Postgres LISTEN/NOTIFY. The notification is
+ * sent inside the writing transaction, so other nodes only hear about committed changes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "categories.catalogue.notify", havingValue = "true")
+public class CategoryChangeNotifier {
+    private static final String CHANNEL = "category_changes";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CategoryCatalogue catalogue;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final long pollMillis;
+    private final Thread listener = new Thread(this::listen, "category-change-listener");
+    private volatile boolean running = true;
+
+    public CategoryChangeNotifier(CategoryCatalogue catalogue, DataSource dataSource,
+                                  DataSourceProperties dataSourceProperties,
+                                  @Value("${categories.catalogue.poll-ms:500}") long pollMillis) {
+        this.catalogue = catalogue;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollMillis = pollMillis;
+        listener.setDaemon(true);
+    }
+
+    public void notifyChange() {
+        jdbcTemplate.query("select pg_notify(?, ?)", resultSet -> null, CHANNEL, nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Refreshes the catalogue when any of the notifications came from another node.
+     */
+    public void onNotifications(PGNotification[] notifications) {
+        if ((notifications != null) && hasForeignChange(notifications)) {
+            catalogue.refresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                catalogue.refresh();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    onNotifications(pgConnection.getNotifications((int) pollMillis));
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Category change listener lost its connection, reconnecting", e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private boolean hasForeignChange(PGNotification[] notifications) {
+        for (PGNotification notification : notifications) {
+            if (!nodeId.equals(notification.getParameter())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,11 +5,14 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.events.AdminUpdateEvent;
 import ru.practicum.dto.events.EventFullDto;
+import ru.practicum.dto.events.EventModerationResult;
+import ru.practicum.dto.events.EventsModerationRequest;
 import ru.practicum.repositories.events.CombineEventFilters;
 import ru.practicum.services.EventService;
 import ru.practicum.states.EventState;
 import ru.practicum.utilities.DateTime;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -43,6 +46,18 @@ public class EventControllerAdmin {
         return eventService.decline(eventId);
     }
 
+    @PatchMapping(value = "/publish")
+    public List<EventModerationResult> publishAll(@Valid @RequestBody EventsModerationRequest request) {
+        log.info("{} events sent for publication", request.getIds().size());
+        return eventService.publishAll(request.getIds());
+    }
+
+    @PatchMapping(value = "/reject")
+    public List<EventModerationResult> declineAll(@Valid @RequestBody EventsModerationRequest request) {
+        log.info("{} events sent for rejection", request.getIds().size());
+        return eventService.declineAll(request.getIds());
+    }
+
     @GetMapping
     public List<EventFullDto> findFullEvents(
             @RequestParam(required = false) Long[] users, @RequestParam(required = false) EventState[] states,
@@ -4,8 +4,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.RequestStatusUpdateRequest;
+import ru.practicum.dto.RequestStatusUpdateResult;
 import ru.practicum.services.RequestService;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import java.util.List;
 
@@ -52,6 +55,15 @@ public class RequestControllerAuthorized {
         return requestService.confirmRequest(userId, eventId, reqId);
     }
 
+    @PatchMapping(value = "/{userId}/events/{eventId}/requests")
+    public RequestStatusUpdateResult updateRequestsStatus(@PathVariable @Positive long userId,
+                                                          @PathVariable @Positive long eventId,
+                                                          @Valid @RequestBody RequestStatusUpdateRequest request) {
+        log.info("The user with id={} set status {} to {} requests for the event with id={}", userId,
+                request.getStatus(), request.getRequestIds().size(), eventId);
+        return requestService.updateRequestsStatus(userId, eventId, request);
+    }
+
     @PatchMapping(value = "/{userId}/events/{eventId}/requests/{reqId}/reject")
     public RequestDto declineRequest(@PathVariable @Positive long userId, @PathVariable @Positive long eventId,
                                      @PathVariable @Positive long reqId) {
@@ -3,6 +3,7 @@ package ru.practicum.controllers.basic;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.services.CategoryService;
 
@@ -29,8 +30,12 @@ public class CategoryController {
 
     @GetMapping
     public List<CategoryDto> find(@RequestParam(required = false, defaultValue = "0") @PositiveOrZero Integer from,
-                                  @RequestParam(required = false, defaultValue = "10") @Positive Integer size) {
+                                  @RequestParam(required = false, defaultValue = "10") @Positive Integer size,
+                                  WebRequest webRequest) {
         log.info("Getting a list of all categories");
+        if (webRequest.checkNotModified(categoryService.getETag())) {
+            return null;
+        }
         return categoryService.get(from, size);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.practicum.controllers.basic;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.dto.CompilationDto;
 import ru.practicum.services.CompilationService;
 
@@ -24,8 +25,12 @@ public class CompilationController {
     @GetMapping
     public List<CompilationDto> get(@RequestParam(required = false) Boolean pinned,
                                     @RequestParam(required = false, defaultValue = "0") @PositiveOrZero Integer from,
-                                    @RequestParam(required = false, defaultValue = "10") @Positive Integer size) {
+                                    @RequestParam(required = false, defaultValue = "10") @Positive Integer size,
+                                    WebRequest webRequest) {
         log.info("Obtaining selections of events by specified criteria");
+        if (webRequest.checkNotModified(compilationService.getETag())) {
+            return null;
+        }
         return compilationService.get(pinned, from, size);
     }
 
@@ -1,8 +1,13 @@
 package ru.practicum.controllers.basic;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.dto.events.EventFullDto;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.availability.AvailabilityBroadcaster;
 import ru.practicum.dto.events.EventShortDto;
 import ru.practicum.repositories.events.CombineEventFilters;
 import ru.practicum.services.EventService;
@@ -14,6 +19,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
@@ -21,18 +27,38 @@ import java.util.List;
 public class EventController {
     private final StatisticService statisticService;
     private final EventService eventService;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final long viewsTtlMillis;
 
-    public EventController(EventService eventService, StatisticService statisticService) {
+    public EventController(EventService eventService, StatisticService statisticService,
+                           AvailabilityBroadcaster availabilityBroadcaster,
+                           @Value("${events.etag.views-ttl-seconds:10}") long viewsTtlSeconds) {
         this.eventService = eventService;
         this.statisticService = statisticService;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.viewsTtlMillis = TimeUnit.SECONDS.toMillis(viewsTtlSeconds);
     }
 
     @GetMapping(value = "/{eventId}")
-    EventFullDto findEventById(@PathVariable @Positive long eventId,
-                               HttpServletRequest request) {
+    ResponseEntity<byte[]> findEventById(@PathVariable @Positive long eventId,
+                                         HttpServletRequest request,
+                                         WebRequest webRequest) {
         statisticService.addStatistics(request);
         log.info("Search for an event with id={}", eventId);
-        return eventService.findEventById(eventId);
+        String version = eventService.getETag(eventId);
+        String eTag = version + "-" + (System.currentTimeMillis() / viewsTtlMillis);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(eventService.findEventJson(eventId, version));
+    }
+
+    @GetMapping(value = "/{eventId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamAvailability(@PathVariable @Positive long eventId) {
+        log.info("Streaming the availability of the event with id={}", eventId);
+        return availabilityBroadcaster.subscribe(eventId);
     }
 
     @GetMapping
@@ -0,0 +1,73 @@
+package ru.practicum.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls every replica with the lag query and takes it out of rotation while it lags behind or is unreachable.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final List<ReplicaPool> replicas;
+    private final DataSourceRoutingProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(List<ReplicaPool> replicas, DataSourceRoutingProperties properties) {
+        this.replicas = replicas;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        checkLag();
+        executor.scheduleWithFixedDelay(this::checkLag, properties.getLagCheckIntervalMs(),
+                properties.getLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public void checkLag() {
+        for (ReplicaPool replica : replicas) {
+            boolean available;
+            try {
+                double lag = queryLag(replica);
+                replica.setLagSeconds(lag);
+                available = lag <= properties.getMaxLagSeconds();
+            } catch (SQLException e) {
+                replica.setLagSeconds(Double.NaN);
+                available = false;
+                log.debug("Lag check failed for replica {}", replica.getName(), e);
+            }
+            if (available != replica.isAvailable()) {
+                log.warn("Replica {} is {} (lag {} s)", replica.getName(), available ? "back in rotation"
+                        : "out of rotation", replica.getLagSeconds());
+            }
+            replica.setAvailable(available);
+        }
+    }
+
+    private double queryLag(ReplicaPool replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+}
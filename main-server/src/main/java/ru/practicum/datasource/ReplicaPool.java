@@ -0,0 +1,16 @@
+package ru.practicum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class ReplicaPool {
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+}
@@ -0,0 +1,97 @@
+package ru.practicum.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to an available replica, round robin, and everything else to the primary.
+ * The lookup happens when the first statement needs a connection, so it must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    private final List<ReplicaPool> replicas;
+    private final Map<String, LongAdder> routes = new HashMap<>();
+    private final LongAdder fallbacks = new LongAdder();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routes.put(PRIMARY, new LongAdder());
+        for (ReplicaPool replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            routes.put(replica.getName(), new LongAdder());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? chooseReplica() : PRIMARY;
+        routes.get(target).increment();
+        return target;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        routes.forEach((target, count) -> FunctionCounter.builder("datasource.routing.connections", count,
+                        LongAdder::sum)
+                .description("Connections handed out by the routing data source")
+                .tag("target", target)
+                .register(registry));
+        FunctionCounter.builder("datasource.routing.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only transactions sent to the primary because no replica was available")
+                .register(registry);
+        for (ReplicaPool replica : replicas) {
+            replica.getDataSource().setMetricRegistry(registry);
+            Gauge.builder("datasource.replica.lag", replica, ReplicaPool::getLagSeconds)
+                    .description("Replication lag reported by the replica")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.getName())
+                    .register(registry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Whether the replica currently receives read-only transactions")
+                    .tag("pool", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private String chooseReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica.getName();
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.states.RequestState;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.Set;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RequestStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private Set<@NotNull @Positive Long> requestIds;
+
+    @NotNull
+    private RequestState status;
+}
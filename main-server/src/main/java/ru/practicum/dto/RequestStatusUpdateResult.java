@@ -0,0 +1,13 @@
+package ru.practicum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+public class RequestStatusUpdateResult {
+    private List<RequestDto> confirmedRequests;
+    private List<RequestDto> rejectedRequests;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.dto.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class EventAvailabilityDto {
+    private Long eventId;
+    private Long confirmedRequests;
+    private Integer participantLimit;
+}
\ No newline at end of file
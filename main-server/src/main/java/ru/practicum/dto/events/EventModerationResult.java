@@ -0,0 +1,12 @@
+package ru.practicum.dto.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.states.ModerationOutcome;
+
+@AllArgsConstructor
+@Data
+public class EventModerationResult {
+    private Long eventId;
+    private ModerationOutcome outcome;
+}
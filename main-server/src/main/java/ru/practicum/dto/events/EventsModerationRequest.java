@@ -0,0 +1,20 @@
+package ru.practicum.dto.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.Set;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class EventsModerationRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private Set<@NotNull @Positive Long> ids;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.errors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.errors.exceptions.BadRequestException;
 import ru.practicum.errors.exceptions.NotFoundException;
+import ru.practicum.errors.exceptions.TooManyRequestsException;
 import ru.practicum.errors.exceptions.UnavailableStatisticsException;
 
 import javax.validation.ConstraintViolationException;
@@ -61,4 +63,11 @@ public class ErrorHandler {
         return makeResponse(e, HttpStatus.FORBIDDEN,
                 "Inadmissible action with an object");
     }
+
+    @ExceptionHandler
+    public ResponseEntity<ApiError> tooManyRequestsExceptionHandler(final TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ApiError(e, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry later"));
+    }
 }
\ No newline at end of file
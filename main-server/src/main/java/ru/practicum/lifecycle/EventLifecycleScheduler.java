@@ -0,0 +1,125 @@
+package ru.practicum.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.repositories.RequestRepository;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.repositories.events.EventSchedule;
+import ru.practicum.search.EventSearchIndex;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves published events to FINISHED once their date has come and expires their pending requests.
+ * Only events starting within the horizon are kept in the wheel; the window is reloaded every half horizon.
+ */
+@Slf4j
+@Component
+public class EventLifecycleScheduler {
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final EventSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel wheel;
+    private final long tickMillis;
+    private final long horizonMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EventLifecycleScheduler(EventRepository eventRepository,
+                                   RequestRepository requestRepository,
+                                   EventSearchIndex searchIndex,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${events.lifecycle.tick-ms:1000}") long tickMillis,
+                                   @Value("${events.lifecycle.wheel-size:512}") int wheelSize,
+                                   @Value("${events.lifecycle.horizon-minutes:60}") long horizonMinutes) {
+        if (horizonMinutes <= 0) {
+            throw new IllegalArgumentException("Event lifecycle horizon must be positive");
+        }
+        this.eventRepository = eventRepository;
+        this.requestRepository = requestRepository;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMillis = tickMillis;
+        this.horizonMillis = TimeUnit.MINUTES.toMillis(horizonMinutes);
+        this.wheel = new HashedTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::reload, 0, horizonMillis / 2, TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public void schedule(long eventId, LocalDateTime eventDate) {
+        long deadline = toMillis(eventDate);
+        if (deadline < System.currentTimeMillis() + horizonMillis) {
+            wheel.schedule(eventId, deadline);
+        } else {
+            wheel.cancel(eventId);
+        }
+    }
+
+    void reload() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer finished = transactionTemplate.execute(status -> {
+                searchIndex.refreshAfterCommit(eventRepository.findPublishedBefore(now.plusNanos(1)).stream()
+                        .map(EventSchedule::getId)
+                        .collect(Collectors.toList()));
+                int count = eventRepository.finishAllPublished(now);
+                requestRepository.expireAllPending();
+                return count;
+            });
+            List<EventSchedule> upcoming = eventRepository.findPublishedBefore(
+                    now.plusNanos(TimeUnit.MILLISECONDS.toNanos(horizonMillis)));
+            upcoming.forEach(event -> wheel.schedule(event.getId(), toMillis(event.getEventDate())));
+            log.info("Event lifecycle: {} overdue events finished, {} upcoming events scheduled", finished,
+                    wheel.size());
+        } catch (RuntimeException e) {
+            log.error("Event lifecycle reload failed", e);
+        }
+    }
+
+    void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                int events = eventRepository.finishPublished(due, now);
+                searchIndex.refreshAfterCommit(due);
+                int requests = requestRepository.expirePending(due);
+                log.info("Event lifecycle: {} events finished, {} pending requests expired", events, requests);
+            });
+        } catch (RuntimeException e) {
+            log.error("Event lifecycle failed to finish events {}", due, e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
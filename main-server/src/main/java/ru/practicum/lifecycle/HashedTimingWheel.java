@@ -0,0 +1,86 @@
+package ru.practicum.lifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel of ids keyed by deadline. Each bucket holds the ids whose deadline tick maps to it;
+ * ids more than one revolution away simply stay in their bucket until their tick comes round.
+ */
+public class HashedTimingWheel {
+    private final long tickMillis;
+    private final Set<Long>[] buckets;
+    private final Map<Long, Long> deadlineTicks = new HashMap<>();
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if ((tickMillis <= 0) || (wheelSize <= 0)) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new Set[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new HashSet<>();
+        }
+        this.lastTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedules the id for the deadline, replacing any deadline it had before. A deadline that has already
+     * passed is returned by the next {@link #advance(long)}.
+     */
+    public synchronized void schedule(long id, long deadlineMillis) {
+        cancel(id);
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), lastTick + 1);
+        deadlineTicks.put(id, tick);
+        buckets[bucketOf(tick)].add(id);
+    }
+
+    public synchronized boolean cancel(long id) {
+        Long tick = deadlineTicks.remove(id);
+        return (tick != null) && buckets[bucketOf(tick)].remove(id);
+    }
+
+    /**
+     * Moves the wheel to the given time and returns the ids whose deadlines are due.
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<Long> expired = new ArrayList<>();
+        if (nowTick <= lastTick) {
+            return expired;
+        }
+        long ticks = Math.min(nowTick - lastTick, buckets.length);
+        for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+            Iterator<Long> ids = buckets[bucketOf(tick)].iterator();
+            while (ids.hasNext()) {
+                Long id = ids.next();
+                if (deadlineTicks.get(id) <= nowTick) {
+                    ids.remove();
+                    deadlineTicks.remove(id);
+                    expired.add(id);
+                }
+            }
+        }
+        lastTick = nowTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
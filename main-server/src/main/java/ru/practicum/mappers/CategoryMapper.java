@@ -5,7 +5,7 @@ import ru.practicum.models.Category;
 
 public class CategoryMapper {
     public static Category toCategory(CategoryDto categoryDto) {
-        return new Category(categoryDto.getId(), categoryDto.getName());
+        return new Category(categoryDto.getId(), categoryDto.getName(), 0);
     }
 
     public static CategoryDto toCategoryDto(Category category) {
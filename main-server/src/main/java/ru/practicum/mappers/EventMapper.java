@@ -1,8 +1,11 @@
 package ru.practicum.mappers;
 
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserShortDto;
 import ru.practicum.dto.events.*;
 import ru.practicum.models.Category;
 import ru.practicum.models.Event;
+import ru.practicum.repositories.events.EventShortProjection;
 import ru.practicum.states.EventState;
 import ru.practicum.utilities.DateTime;
 
@@ -38,7 +41,7 @@ public class EventMapper {
                 .paid(paid)
                 .participantLimit(participantLimit)
                 .requestModeration(requestModeration)
-                .category(new Category(createEventDto.getCategory(), ""))
+                .category(new Category(createEventDto.getCategory(), "", 0))
                 .state(EventState.PENDING)
                 .build();
     }
@@ -57,6 +60,20 @@ public class EventMapper {
                 .build();
     }
 
+    public static EventShortDto toEventShortDto(EventShortProjection event) {
+        return EventShortDto.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .annotation(event.getAnnotation())
+                .eventDate(DateTime.dateTimeToString(event.getEventDate()))
+                .paid(event.getPaid())
+                .initiator(new UserShortDto(event.getOwnerId(), event.getOwnerName()))
+                .category(new CategoryDto(event.getCategoryId(), event.getCategoryName()))
+                .confirmedRequests(0L)
+                .views(0L)
+                .build();
+    }
+
     public static EventFullDto toEventFullDto(Event event) {
         return EventFullDto.builder()
                 .id(event.getId())
@@ -119,7 +136,7 @@ public class EventMapper {
             event.setParticipantLimit(updateEvent.getParticipantLimit());
         }
         if (updateEvent.getCategory() != null) {
-            event.setCategory(new Category(updateEvent.getCategory(), ""));
+            event.setCategory(new Category(updateEvent.getCategory(), "", 0));
         }
     }
 }
\ No newline at end of file
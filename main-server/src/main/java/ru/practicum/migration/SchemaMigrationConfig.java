@@ -0,0 +1,34 @@
+package ru.practicum.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+
+import javax.sql.DataSource;
+
+/**
+ * Brings the main database up to the latest db/migration script before JPA starts.
+ */
+@Configuration
+@ConditionalOnProperty(name = "schema.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+    private static final String INITIALIZER = "schemaMigrationInitializer";
+
+    @Bean(INITIALIZER)
+    public DataSourceInitializer schemaMigrationInitializer(
+            DataSource dataSource,
+            @Value("${schema.migrations.location:classpath:db/migration}") String location) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new SchemaMigrations(location));
+        return initializer;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnMigrations() {
+        return new EntityManagerFactoryDependsOnPostProcessor(INITIALIZER);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package ru.practicum.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.DatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies V&lt;version&gt;__&lt;description&gt;.sql scripts in version order, each once, and records them in
+ * schema_history. A script that changed after it was applied stops the start instead of being run again.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaMigrations implements DatabasePopulator {
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String CREATE_HISTORY = "CREATE TABLE IF NOT EXISTS schema_history (" +
+            "version INT NOT NULL, description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, " +
+            "installed_on TIMESTAMP NOT NULL, CONSTRAINT pk_schema_history PRIMARY KEY(version))";
+
+    private final String location;
+
+    @Override
+    public void populate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_HISTORY);
+        }
+        Map<Integer, Long> applied = findApplied(connection);
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            for (Migration migration : findMigrations()) {
+                Long checksum = applied.get(migration.version);
+                if (checksum == null) {
+                    apply(connection, migration);
+                } else if (checksum != migration.checksum) {
+                    throw new IllegalStateException("Migration V" + migration.version + "__" +
+                            migration.description + " was changed after it had been applied");
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.script);
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO schema_history " +
+                    "(version, description, checksum, installed_on) VALUES (?, ?, ?, ?)")) {
+                statement.setInt(1, migration.version);
+                statement.setString(2, migration.description);
+                statement.setLong(3, migration.checksum);
+                statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                statement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+        log.info("Applied schema migration V{}__{}", migration.version, migration.description);
+    }
+
+    private Map<Integer, Long> findApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_history")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private List<Migration> findMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource script : new PathMatchingResourcePatternResolver().getResources(location + "/V*.sql")) {
+                Matcher matcher = SCRIPT_NAME.matcher(script.getFilename());
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Unexpected migration name " + script.getFilename());
+                }
+                CRC32 crc = new CRC32();
+                crc.update(StreamUtils.copyToByteArray(script.getInputStream()));
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2), crc.getValue(),
+                        script));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        migrations.sort(Comparator.comparingInt(migration -> migration.version));
+        return migrations;
+    }
+
+    @RequiredArgsConstructor
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final long checksum;
+        private final Resource script;
+    }
+}
\ No newline at end of file
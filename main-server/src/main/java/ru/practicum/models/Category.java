@@ -20,4 +20,7 @@ public class Category {
 
     @Column(name = "name", nullable = false, length = 75)
     private String name;
+
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
 }
\ No newline at end of file
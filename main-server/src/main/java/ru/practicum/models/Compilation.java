@@ -23,6 +23,9 @@ public class Compilation {
     @Column(name = "pinned")
     private Boolean pinned;
 
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
+
     @OneToMany
     @JoinColumn(name = "comp_id", insertable = false, updatable = false)
     private List<EventsCompilation> compilationEvents;
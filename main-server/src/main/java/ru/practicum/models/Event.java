@@ -33,7 +33,7 @@ public class Event {
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
-    @Column(name = "published", nullable = false)
+    @Column(name = "published")
     private LocalDateTime published;
 
     @Column(name = "lat", nullable = false)
@@ -62,4 +62,7 @@ public class Event {
     @Column(name = "state", length = 20)
     @Enumerated(EnumType.STRING)
     private EventState state;
+
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
 }
\ No newline at end of file
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "requests")
+@Table(name = "requests",
+        uniqueConstraints = @UniqueConstraint(name = "uq_requests_user_event", columnNames = {"user_id", "event_id"}))
 @Builder
 public class Request {
     @Id
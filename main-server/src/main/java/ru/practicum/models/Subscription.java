@@ -9,7 +9,9 @@ import javax.persistence.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "subscriptions")
+@Table(name = "subscriptions",
+        uniqueConstraints = @UniqueConstraint(name = "uq_subscriptions_user_friend",
+                columnNames = {"user_id", "friend_id"}))
 @Builder
 public class Subscription {
     @Id
@@ -0,0 +1,104 @@
+package ru.practicum.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.errors.exceptions.TooManyRequestsException;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits requests of the configured routes through a token bucket per route and client address, the address
+ * statistics are recorded with. The first route matching the method and path applies, other requests pass.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor, MeterBinder {
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<LimitedRoute> routes = new ArrayList<>();
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RateLimitInterceptor(RateLimitProperties properties) {
+        properties.getRoutes().forEach((name, route) -> routes.add(new LimitedRoute(name, route,
+                new TokenBucketTable(route.getPermitsPerSecond(), route.getBurst(), properties.getMaxClients()))));
+        long interval = properties.getEvictionIntervalSeconds();
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        evictor.shutdownNow();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        LimitedRoute route = findRoute(request);
+        if (route == null) {
+            return true;
+        }
+        long wait = route.buckets.tryAcquire(request.getRemoteAddr(), System.nanoTime());
+        if (wait > 0) {
+            route.rejected.increment();
+            throw new TooManyRequestsException("Rate limit of " + route.name + " exceeded",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (LimitedRoute route : routes) {
+            FunctionCounter.builder("http.rate-limit.rejected", route.rejected, LongAdder::sum)
+                    .description("Requests answered with 429 by the rate limiter")
+                    .tag("route", route.name)
+                    .register(registry);
+            Gauge.builder("http.rate-limit.clients", route.buckets, TokenBucketTable::size)
+                    .description("Clients with a partly used token bucket")
+                    .tag("route", route.name)
+                    .register(registry);
+        }
+    }
+
+    private LimitedRoute findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedRoute route : routes) {
+            if (route.settings.getMethods().contains(request.getMethod())
+                    && pathMatcher.match(route.settings.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        routes.forEach(route -> route.buckets.evictIdle(now));
+    }
+
+    private static class LimitedRoute {
+        private final String name;
+        private final RateLimitProperties.Route settings;
+        private final TokenBucketTable buckets;
+        private final LongAdder rejected = new LongAdder();
+
+        LimitedRoute(String name, RateLimitProperties.Route settings, TokenBucketTable buckets) {
+            this.name = name;
+            this.settings = settings;
+            this.buckets = buckets;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ru.practicum.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled;
+    private int maxClients = 100_000;
+    private long evictionIntervalSeconds = 10;
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private List<String> methods = new ArrayList<>(List.of("GET"));
+        private double permitsPerSecond = 10;
+        private int burst = 20;
+    }
+}
\ No newline at end of file
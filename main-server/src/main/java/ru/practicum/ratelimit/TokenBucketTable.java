@@ -0,0 +1,62 @@
+package ru.practicum.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of one route keyed by client. A bucket is kept as the time at which it would be full again
+ * (the generic cell rate algorithm form of a token bucket), so taking a token is a compare-and-set on one long.
+ * A bucket that is full again carries nothing a new one would not, which lets {@link #evictIdle} drop it.
+ * When the table holds maxClients buckets, clients without one share a single overflow bucket until the next
+ * eviction makes room.
+ */
+public class TokenBucketTable {
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+
+    public TokenBucketTable(double permitsPerSecond, int burst, int maxClients) {
+        if ((permitsPerSecond <= 0) || (burst < 1)) {
+            throw new IllegalArgumentException("Rate limit needs positive permits per second and burst");
+        }
+        this.emissionNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = emissionNanos * (burst - 1);
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Takes a token of the client's bucket.
+     *
+     * @return 0 when the request is admitted, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = (buckets.size() < maxClients)
+                    ? buckets.computeIfAbsent(client, key -> new AtomicLong(nowNanos))
+                    : overflow;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = (fullAt - nowNanos > 0) ? fullAt : nowNanos;
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + emissionNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
\ No newline at end of file
@@ -1,7 +1,12 @@
 package ru.practicum.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.models.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @Modifying
+    @Query("update Category c set c.version = c.version + 1 where c.id = :id")
+    int incrementVersion(long id);
 }
\ No newline at end of file
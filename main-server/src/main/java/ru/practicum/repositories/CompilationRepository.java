@@ -2,10 +2,24 @@ package ru.practicum.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.models.Compilation;
 
 import java.util.List;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     List<Compilation> findByPinned(Boolean pinned, Pageable pageable);
+
+    @Query("select count(c) as count, coalesce(sum(c.version), 0) as versions, coalesce(max(c.id), 0) as maxId " +
+            "from Compilation c")
+    TableVersion getTableVersion();
+
+    @Query("select count(ec) as count, coalesce(sum(e.version + cat.version), 0) as versions, " +
+            "coalesce(max(ec.id), 0) as maxId from EventsCompilation ec join ec.event e join e.category cat")
+    TableVersion getEventsVersion();
+
+    @Modifying
+    @Query("update Compilation c set c.version = c.version + 1 where c.id = :id")
+    int incrementVersion(long id);
 }
\ No newline at end of file
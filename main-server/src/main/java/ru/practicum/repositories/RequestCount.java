@@ -0,0 +1,7 @@
+package ru.practicum.repositories;
+
+public interface RequestCount {
+    Long getEventId();
+
+    Long getCount();
+}
\ No newline at end of file
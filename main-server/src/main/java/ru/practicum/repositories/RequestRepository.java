@@ -4,8 +4,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.models.Request;
+import ru.practicum.states.RequestState;
 
 import javax.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
@@ -13,13 +15,41 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
 
     List<Request> findByEventId(Long eventId);
 
+    boolean existsByUserIdAndEventId(Long userId, Long eventId);
+
     @Transactional
     @Modifying
     @Query(nativeQuery = true, value = "update Requests set status = 'REJECTED' where status = 'PENDING' AND event_id" +
             " = :eventId")
     void setRejectedStatusToPendingRequests(Long eventId);
 
-    @Query(nativeQuery = true, value = "select count(*) from Requests where status = 'APPROVED' and event_id = " +
+    @Transactional
+    @Modifying
+    @Query("update Request r set r.status = :status where r.id in :ids")
+    int updateStatus(Collection<Long> ids, RequestState status);
+
+    @Modifying
+    @Query("update Request r set r.status = ru.practicum.states.RequestState.EXPIRED " +
+            "where r.status = ru.practicum.states.RequestState.PENDING and r.eventId in " +
+            "(select e.id from Event e where e.id in :eventIds and e.state = ru.practicum.states.EventState.FINISHED)")
+    int expirePending(Collection<Long> eventIds);
+
+    @Modifying
+    @Query("update Request r set r.status = ru.practicum.states.RequestState.EXPIRED " +
+            "where r.status = ru.practicum.states.RequestState.PENDING and r.eventId in " +
+            "(select e.id from Event e where e.state = ru.practicum.states.EventState.FINISHED)")
+    int expireAllPending();
+
+    @Query("select r.eventId as eventId, count(r.id) as count from Request r " +
+            "where r.status = ru.practicum.states.RequestState.CONFIRMED and r.eventId in :eventIds group by r.eventId")
+    List<RequestCount> countApprovedRequests(Collection<Long> eventIds);
+
+    @Query("select r.eventId as eventId, count(r.id) as count from Request r " +
+            "where r.status = ru.practicum.states.RequestState.CONFIRMED and r.eventId > :afterId " +
+            "and r.eventId <= :lastId group by r.eventId")
+    List<RequestCount> countApprovedRequestsBetween(long afterId, long lastId);
+
+    @Query(nativeQuery = true, value = "select count(*) from Requests where status = 'CONFIRMED' and event_id = " +
             ":eventId")
     long countApprovedRequests(long eventId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package ru.practicum.repositories;
+
+public interface TableVersion {
+    Long getCount();
+
+    Long getVersions();
+
+    Long getMaxId();
+}
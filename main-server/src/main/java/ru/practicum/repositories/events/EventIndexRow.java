@@ -0,0 +1,32 @@
+package ru.practicum.repositories.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.states.EventState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything {@link ru.practicum.search.EventSearchIndex} keeps about an event but the confirmed request count:
+ * the short DTO columns, the filtered attributes and the version used to drop out-of-order refreshes.
+ */
+@AllArgsConstructor
+@Getter
+public class EventIndexRow {
+    public static final String SELECT = "select new ru.practicum.repositories.events.EventIndexRow" +
+            "(e.id, e.title, e.annotation, e.eventDate, e.paid, o.id, o.name, c.id, e.state, e.participantLimit, " +
+            "e.version) " +
+            "from Event e join e.owner o join e.category c";
+
+    private final Long id;
+    private final String title;
+    private final String annotation;
+    private final LocalDateTime eventDate;
+    private final Boolean paid;
+    private final Long ownerId;
+    private final String ownerName;
+    private final Long categoryId;
+    private final EventState state;
+    private final Integer participantLimit;
+    private final long version;
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.repositories.events;
+
+import ru.practicum.states.EventState;
+
+import java.time.LocalDateTime;
+
+public interface EventModerationState {
+    Long getId();
+
+    EventState getState();
+
+    LocalDateTime getEventDate();
+
+    LocalDateTime getPublished();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.repositories.events;
+
+public interface EventParticipantLimit {
+    Long getId();
+
+    Integer getParticipantLimit();
+}
\ No newline at end of file
@@ -2,18 +2,74 @@ package ru.practicum.repositories.events;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.models.Event;
 import ru.practicum.states.EventSortBy;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<Event, Long>, ExtendedEventRepository {
     @Query(nativeQuery = true, value = "select min(created) from events where id in :eventIds")
     LocalDateTime getMinCreatedDate(Long[] eventIds);
 
-    List<Event> findEventsByOwnerId(long ownerId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.id = :id")
+    Optional<Event> findByIdForUpdate(long id);
+
+    @Query("select e.version as version, e.category.version as categoryVersion from Event e where e.id = :id")
+    Optional<EventVersion> findVersion(long id);
+
+    @Modifying
+    @Query("update Event e set e.version = e.version + 1 where e.id = :id")
+    int incrementVersion(long id);
+
+    @Query(EventShortProjection.SELECT + " where o.id = :ownerId")
+    List<EventShortProjection> findShortEventsByOwnerId(long ownerId, Pageable pageable);
+
+    @Query(EventIndexRow.SELECT + " where e.id > :afterId order by e.id")
+    List<EventIndexRow> findIndexRowsAfter(long afterId, Pageable pageable);
+
+    @Query(EventIndexRow.SELECT + " where e.id in :ids")
+    List<EventIndexRow> findIndexRows(Collection<Long> ids);
 
     List<Event> extendedSearchByFilters(CombineEventFilters eventFilters, EventSortBy sort, Pageable pageable);
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id as id, e.state as state, e.eventDate as eventDate, e.published as published " +
+            "from Event e where e.id in :ids order by e.id")
+    List<EventModerationState> findModerationStatesForUpdate(Collection<Long> ids);
+
+    @Query("select e.id as id, e.participantLimit as participantLimit from Event e where e.id in :ids")
+    List<EventParticipantLimit> findParticipantLimits(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Event e set e.state = ru.practicum.states.EventState.PUBLISHED, e.published = :published, " +
+            "e.version = e.version + 1 " +
+            "where e.id in :ids and e.state = ru.practicum.states.EventState.PENDING and e.eventDate > :deadline")
+    int publishPending(Collection<Long> ids, LocalDateTime published, LocalDateTime deadline);
+
+    @Modifying
+    @Query("update Event e set e.state = ru.practicum.states.EventState.CANCELED, e.version = e.version + 1 " +
+            "where e.id in :ids and e.state = ru.practicum.states.EventState.PENDING")
+    int cancelPending(Collection<Long> ids);
+
+    @Query("select e.id as id, e.eventDate as eventDate from Event e " +
+            "where e.state = ru.practicum.states.EventState.PUBLISHED and e.eventDate < :until")
+    List<EventSchedule> findPublishedBefore(LocalDateTime until);
+
+    @Modifying
+    @Query("update Event e set e.state = ru.practicum.states.EventState.FINISHED, e.version = e.version + 1 " +
+            "where e.id in :ids and e.state = ru.practicum.states.EventState.PUBLISHED and e.eventDate <= :now")
+    int finishPublished(Collection<Long> ids, LocalDateTime now);
+
+    @Modifying
+    @Query("update Event e set e.state = ru.practicum.states.EventState.FINISHED, e.version = e.version + 1 " +
+            "where e.state = ru.practicum.states.EventState.PUBLISHED and e.eventDate <= :now")
+    int finishAllPublished(LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.repositories.events;
+
+import java.time.LocalDateTime;
+
+public interface EventSchedule {
+    Long getId();
+
+    LocalDateTime getEventDate();
+}
@@ -0,0 +1,28 @@
+package ru.practicum.repositories.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns needed for {@link ru.practicum.dto.events.EventShortDto}, filled by a JPQL constructor expression so
+ * that list endpoints neither read the description nor build managed entities.
+ */
+@AllArgsConstructor
+@Getter
+public class EventShortProjection {
+    public static final String SELECT = "select new ru.practicum.repositories.events.EventShortProjection" +
+            "(e.id, e.title, e.annotation, e.eventDate, e.paid, o.id, o.name, c.id, c.name) " +
+            "from Event e join e.owner o join e.category c";
+
+    private final Long id;
+    private final String title;
+    private final String annotation;
+    private final LocalDateTime eventDate;
+    private final Boolean paid;
+    private final Long ownerId;
+    private final String ownerName;
+    private final Long categoryId;
+    private final String categoryName;
+}
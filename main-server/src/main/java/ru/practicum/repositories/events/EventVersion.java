@@ -0,0 +1,7 @@
+package ru.practicum.repositories.events;
+
+public interface EventVersion {
+    Long getVersion();
+
+    Long getCategoryVersion();
+}
@@ -8,4 +8,6 @@ import java.util.List;
 
 public interface ExtendedEventRepository {
     List<Event> extendedSearchByFilters(CombineEventFilters filter, EventSortBy sort, Pageable pageable);
+
+    List<EventShortProjection> shortSearchByFilters(CombineEventFilters filter, EventSortBy sort, Pageable pageable);
 }
\ No newline at end of file
@@ -2,128 +2,178 @@ package ru.practicum.repositories.events;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.models.Event;
-import ru.practicum.models.Request;
 import ru.practicum.states.EventSortBy;
 import ru.practicum.states.EventState;
 import ru.practicum.states.RequestState;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.criteria.*;
+import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public class ExtendedEventRepositoryImpl implements ExtendedEventRepository {
+    private static final Map<Integer, String> QUERY_TEMPLATES = new ConcurrentHashMap<>();
+    private static final int ORDER_BY_DATE = 1 << Clause.values().length;
+    private static final int SHORT_PROJECTION = ORDER_BY_DATE << 1;
+    private static final String SELECT_EVENTS = "select e from Event e join fetch e.owner o join fetch e.category c";
+
     @PersistenceContext
     private EntityManager em;
 
     @Override
     public List<Event> extendedSearchByFilters(CombineEventFilters filter, EventSortBy sorting, Pageable pageable) {
-        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
-        CriteriaQuery<Event> query = criteriaBuilder.createQuery(Event.class);
-        Root<Event> root = query.from(Event.class);
-        Predicate parameters = filter(root, criteriaBuilder, query, filter);
-        query.select(root).where(parameters);
-
-        if ((sorting == null) || (sorting == EventSortBy.EVENT_DATE)) {
-            query.orderBy(criteriaBuilder.asc(root.get("eventDate")));
-        }
-        return em.createQuery(query)
-                .setFirstResult((int) pageable.getOffset())
-                .setMaxResults(pageable.getPageSize())
-                .getResultList();
-    }
-
-    private Predicate filterByText(Root<Event> root, CriteriaBuilder criteriaBuilder, String text) {
-        String value = "%" + text.toLowerCase() + "%";
-        Predicate annotation = criteriaBuilder.like(criteriaBuilder.lower(root.get("annotation")), value);
-        Predicate description = criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), value);
-        return criteriaBuilder.or(annotation, description);
-    }
-
-    private Predicate filterByStart(Root<Event> root, CriteriaBuilder criteriaBuilder, LocalDateTime start) {
-        return criteriaBuilder.greaterThanOrEqualTo(root.get("eventDate"), start);
-    }
-
-    private Predicate filterByEnd(Root<Event> root, CriteriaBuilder criteriaBuilder, LocalDateTime end) {
-        return criteriaBuilder.lessThanOrEqualTo(root.get("eventDate"), end);
-    }
-
-    private Predicate filterByPeriod(Root<Event> root, CriteriaBuilder criteriaBuilder) {
-        return criteriaBuilder.greaterThan(root.get("eventDate"), LocalDateTime.now());
-    }
-
-    private Predicate filterIfPaid(Root<Event> root, CriteriaBuilder criteriaBuilder, Boolean isPaid) {
-        return criteriaBuilder.equal(root.get("paid"), isPaid);
+        return search(filter, sorting, pageable, Event.class);
     }
 
-    private Predicate filterIfAvailable(Root<Event> root, CriteriaBuilder criteriaBuilder, CriteriaQuery<Event> cq) {
-        Subquery request = cq.subquery(Long.class);
-        Root<Request> rootRequest = request.from(Request.class);
-        Predicate predicateOne = criteriaBuilder.equal(rootRequest.get("eventId"), root.get("id"));
-        Predicate predicateTwo = criteriaBuilder.equal(rootRequest.get("status"), RequestState.CONFIRMED);
-        request.select(criteriaBuilder.count(rootRequest.get("id"))).where(criteriaBuilder.and(predicateOne,
-                predicateTwo));
-        Predicate predicateThree = criteriaBuilder.lessThan(request, root.get("participantLimit"));
-        Predicate predicateFour = criteriaBuilder.equal(root.get("participantLimit"), 0);
-        return criteriaBuilder.or(predicateThree, predicateFour);
-    }
-
-    private Predicate filterByUsers(Root<Event> root, CriteriaBuilder criteriaBuilder, Long[] users) {
-        Predicate[] predicatesArr = new Predicate[users.length];
-        for (int i = 0; i < users.length; i++) {
-            predicatesArr[i] = criteriaBuilder.equal(root.get("owner").get("id"), users[i]);
-        }
-        return criteriaBuilder.or(predicatesArr);
+    @Override
+    public List<EventShortProjection> shortSearchByFilters(CombineEventFilters filter, EventSortBy sorting,
+                                                           Pageable pageable) {
+        return search(filter, sorting, pageable, EventShortProjection.class);
     }
 
-    private Predicate filterByCategories(Root<Event> root, CriteriaBuilder criteriaBuilder, Long[] categories) {
-        Predicate[] predicatesArr = new Predicate[categories.length];
-        for (int i = 0; i < categories.length; i++) {
-            predicatesArr[i] = criteriaBuilder.equal(root.get("category").get("id"), categories[i]);
-        }
-        return criteriaBuilder.or(predicatesArr);
-    }
+    private <T> List<T> search(CombineEventFilters filter, EventSortBy sorting, Pageable pageable, Class<T> type) {
+        Set<Clause> clauses = getClauses(filter);
+        boolean orderByDate = (sorting == null) || (sorting == EventSortBy.EVENT_DATE);
+        String select = (type == EventShortProjection.class) ? EventShortProjection.SELECT : SELECT_EVENTS;
+        int shape = getShape(clauses, orderByDate) | ((type == EventShortProjection.class) ? SHORT_PROJECTION : 0);
+        String jpql = QUERY_TEMPLATES.computeIfAbsent(shape, key -> buildQuery(select, clauses, orderByDate));
 
-    private Predicate filterByStates(Root<Event> root, CriteriaBuilder criteriaBuilder, EventState[] states) {
-        Predicate[] predicatesArr = new Predicate[states.length];
-        for (int i = 0; i < states.length; i++) {
-            predicatesArr[i] = criteriaBuilder.equal(root.get("state"), states[i]);
-        }
-        return criteriaBuilder.or(predicatesArr);
+        TypedQuery<T> query = em.createQuery(jpql, type);
+        clauses.forEach(clause -> clause.bind(query, filter));
+        return query
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
     }
 
-    private Predicate filter(Root<Event> root, CriteriaBuilder criteriaBuilder, CriteriaQuery<Event> query,
-                             CombineEventFilters filter) {
-        List<Predicate> predicateList = new ArrayList<>();
+    private Set<Clause> getClauses(CombineEventFilters filter) {
+        Set<Clause> clauses = EnumSet.noneOf(Clause.class);
         if (filter.getText() != null) {
-            predicateList.add(filterByText(root, criteriaBuilder, filter.getText()));
+            clauses.add(Clause.TEXT);
         }
         if (filter.getRangeStart() != null) {
-            predicateList.add(filterByStart(root, criteriaBuilder, filter.getRangeStart()));
+            clauses.add(Clause.RANGE_START);
         }
         if (filter.getRangeEnd() != null) {
-            predicateList.add(filterByEnd(root, criteriaBuilder, filter.getRangeEnd()));
+            clauses.add(Clause.RANGE_END);
         }
         if ((filter.getRangeStart() == null) && (filter.getRangeEnd() == null)) {
-            predicateList.add(filterByPeriod(root, criteriaBuilder));
+            clauses.add(Clause.UPCOMING);
         }
         if ((filter.getUsers() != null) && (filter.getUsers().length > 0)) {
-            predicateList.add(filterByUsers(root, criteriaBuilder, filter.getUsers()));
+            clauses.add(Clause.USERS);
         }
         if ((filter.getCategories() != null) && (filter.getCategories().length > 0)) {
-            predicateList.add(filterByCategories(root, criteriaBuilder, filter.getCategories()));
+            clauses.add(Clause.CATEGORIES);
         }
         if ((filter.getStates() != null) && (filter.getStates().length > 0)) {
-            predicateList.add(filterByStates(root, criteriaBuilder, filter.getStates()));
+            clauses.add(Clause.STATES);
         }
         if (filter.getPaid() != null) {
-            predicateList.add(filterIfPaid(root, criteriaBuilder, filter.getPaid()));
+            clauses.add(Clause.PAID);
         }
         if ((filter.getOnlyAvailable() != null) && (filter.getOnlyAvailable())) {
-            predicateList.add(filterIfAvailable(root, criteriaBuilder, query));
+            clauses.add(Clause.AVAILABLE);
+        }
+        return clauses;
+    }
+
+    private int getShape(Set<Clause> clauses, boolean orderByDate) {
+        int shape = orderByDate ? ORDER_BY_DATE : 0;
+        for (Clause clause : clauses) {
+            shape |= 1 << clause.ordinal();
+        }
+        return shape;
+    }
+
+    private String buildQuery(String select, Set<Clause> clauses, boolean orderByDate) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (!clauses.isEmpty()) {
+            jpql.append(" where ").append(clauses.stream()
+                    .map(Clause::getCondition)
+                    .collect(Collectors.joining(" and ")));
+        }
+        if (orderByDate) {
+            jpql.append(" order by e.eventDate asc");
+        }
+        return jpql.toString();
+    }
+
+    private enum Clause {
+        TEXT("(lower(e.annotation) like :text or lower(e.description) like :text)") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("text", "%" + filter.getText().toLowerCase() + "%");
+            }
+        },
+        RANGE_START("e.eventDate >= :rangeStart") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("rangeStart", filter.getRangeStart());
+            }
+        },
+        RANGE_END("e.eventDate <= :rangeEnd") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("rangeEnd", filter.getRangeEnd());
+            }
+        },
+        UPCOMING("(e.state = :published or e.eventDate > :now)") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("published", EventState.PUBLISHED);
+                query.setParameter("now", LocalDateTime.now());
+            }
+        },
+        USERS("o.id in :users") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("users", Arrays.asList(filter.getUsers()));
+            }
+        },
+        CATEGORIES("c.id in :categories") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("categories", Arrays.asList(filter.getCategories()));
+            }
+        },
+        STATES("e.state in :states") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("states", Arrays.asList(filter.getStates()));
+            }
+        },
+        PAID("e.paid = :paid") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("paid", filter.getPaid());
+            }
+        },
+        AVAILABLE("(e.participantLimit = 0 or (select count(r.id) from Request r where r.eventId = e.id " +
+                "and r.status = :confirmed) < e.participantLimit)") {
+            @Override
+            void bind(TypedQuery<?> query, CombineEventFilters filter) {
+                query.setParameter("confirmed", RequestState.CONFIRMED);
+            }
+        };
+
+        private final String condition;
+
+        Clause(String condition) {
+            this.condition = condition;
         }
-        return criteriaBuilder.and(predicateList.toArray(new Predicate[predicateList.size()]));
+
+        String getCondition() {
+            return condition;
+        }
+
+        abstract void bind(TypedQuery<?> query, CombineEventFilters filter);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,488 @@
+package ru.practicum.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.catalogue.CategoryCatalogue;
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.dto.events.EventShortDto;
+import ru.practicum.repositories.RequestCount;
+import ru.practicum.repositories.RequestRepository;
+import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventIndexRow;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+import ru.practicum.utilities.DateTime;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the columns public event search filters and returns, so that searches without a text or
+ * initiator condition are answered without a query. Every filtered attribute value has a bitmap of event ids;
+ * a search intersects the bitmaps of its conditions and pages the result either in date order, walking the date
+ * ordered set, or by sorting the matches when there are few of them.
+ * Writers call {@link #refreshAfterCommit} with the ids they touched; rows carry the event version, so a refresh
+ * that reads an older row than one already indexed is dropped.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex implements MeterBinder {
+    private static final int SORT_LIMIT = 4096;
+
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final CategoryCatalogue categoryCatalogue;
+    private final TransactionTemplate refreshTemplate;
+    private final boolean enabled;
+    private final int loadBatch;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedEvent> events = new HashMap<>();
+    private final NavigableSet<IndexedEvent> byDate = new TreeSet<>(IndexedEvent.BY_DATE);
+    private final Map<Long, CompressedBitmap> categories = new HashMap<>();
+    private final Map<EventState, CompressedBitmap> states = new EnumMap<>(EventState.class);
+    private final LongAdder indexSearches = new LongAdder();
+    private final LongAdder databaseSearches = new LongAdder();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompressedBitmap all = new CompressedBitmap();
+    private CompressedBitmap paid = new CompressedBitmap();
+    private CompressedBitmap free = new CompressedBitmap();
+    private CompressedBitmap available = new CompressedBitmap();
+    private volatile boolean ready;
+
+    public EventSearchIndex(EventRepository eventRepository, RequestRepository requestRepository,
+                            CategoryCatalogue categoryCatalogue,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${events.search-index.enabled:false}") boolean enabled,
+                            @Value("${events.search-index.load-batch:10000}") int loadBatch) {
+        this.eventRepository = eventRepository;
+        this.requestRepository = requestRepository;
+        this.categoryCatalogue = categoryCatalogue;
+        this.refreshTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.loadBatch = loadBatch;
+        for (EventState state : EventState.values()) {
+            states.put(state, new CompressedBitmap());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            loader.execute(this::load);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the page the database search would return, or nothing if the index is not loaded yet or the filter
+     * has conditions it does not keep. Views and confirmed requests are left for the caller to fill in.
+     */
+    public Optional<List<EventShortDto>> search(CombineEventFilters filter, EventSortBy sort, long offset, int size) {
+        if (!ready || (filter.getText() != null) || ((filter.getUsers() != null) && (filter.getUsers().length > 0))) {
+            databaseSearches.increment();
+            return Optional.empty();
+        }
+        List<IndexedEvent> page;
+        lock.readLock().lock();
+        try {
+            page = findPage(filter, sort, offset, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        indexSearches.increment();
+        return Optional.of(page.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Schedules a refresh of the events once the current transaction commits, or refreshes right away outside one.
+     */
+    public void refreshAfterCommit(Collection<Long> eventIds) {
+        if (!enabled || eventIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(eventIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(ids);
+                }
+            });
+        } else {
+            refresh(ids);
+        }
+    }
+
+    public void refresh(Collection<Long> eventIds) {
+        try {
+            Batch batch = refreshTemplate.execute(status -> new Batch(eventRepository.findIndexRows(eventIds),
+                    requestRepository.countApprovedRequests(eventIds)));
+            Set<Long> missing = new HashSet<>(eventIds);
+            lock.writeLock().lock();
+            try {
+                for (EventIndexRow row : batch.rows) {
+                    missing.remove(row.getId());
+                    put(row, batch.getConfirmedRequests(row), true);
+                }
+                missing.forEach(id -> remove(id.intValue()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("Event search index failed to refresh events {}, reloading", eventIds, e);
+            ready = false;
+            loader.execute(this::load);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.search.index.size", this, EventSearchIndex::size)
+                .description("Events held by the in-memory search index")
+                .register(registry);
+        FunctionCounter.builder("events.search.queries", indexSearches, LongAdder::sum)
+                .description("Public event searches answered by the in-memory index or by the database")
+                .tag("source", "index")
+                .register(registry);
+        FunctionCounter.builder("events.search.queries", databaseSearches, LongAdder::sum)
+                .description("Public event searches answered by the in-memory index or by the database")
+                .tag("source", "database")
+                .register(registry);
+    }
+
+    void load() {
+        try {
+            long started = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                events.clear();
+                byDate.clear();
+                all = new CompressedBitmap();
+                paid = new CompressedBitmap();
+                free = new CompressedBitmap();
+                available = new CompressedBitmap();
+                categories.clear();
+                states.replaceAll((state, bitmap) -> new CompressedBitmap());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            long lastId = 0;
+            Batch batch;
+            do {
+                long afterId = lastId;
+                batch = refreshTemplate.execute(status -> {
+                    List<EventIndexRow> rows = eventRepository.findIndexRowsAfter(afterId,
+                            PageRequest.of(0, loadBatch));
+                    return new Batch(rows, rows.isEmpty() ? List.of() : requestRepository
+                            .countApprovedRequestsBetween(afterId, rows.get(rows.size() - 1).getId()));
+                });
+                lock.writeLock().lock();
+                try {
+                    for (EventIndexRow row : batch.rows) {
+                        put(row, batch.getConfirmedRequests(row), false);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.rows.isEmpty()) {
+                    lastId = batch.rows.get(batch.rows.size() - 1).getId();
+                }
+            } while (batch.rows.size() == loadBatch);
+            if (lastId > Integer.MAX_VALUE) {
+                log.warn("Event ids no longer fit the search index, public search stays on the database");
+                return;
+            }
+            ready = true;
+            log.info("Event search index loaded {} events in {} ms", size(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Event search index failed to load, public search stays on the database", e);
+        }
+    }
+
+    private List<IndexedEvent> findPage(CombineEventFilters filter, EventSortBy sort, long offset, int size) {
+        CompressedBitmap matches = match(filter);
+        LocalDateTime now = LocalDateTime.now();
+        List<IndexedEvent> page = new ArrayList<>(size);
+        long skip = offset;
+        if ((sort == null) || (sort == EventSortBy.EVENT_DATE)) {
+            if (matches.cardinality() <= SORT_LIMIT) {
+                List<IndexedEvent> sorted = new ArrayList<>();
+                PrimitiveIterator.OfInt ids = matches.iterator();
+                while (ids.hasNext()) {
+                    IndexedEvent event = events.get(ids.nextInt());
+                    if (event.isIn(filter, now)) {
+                        sorted.add(event);
+                    }
+                }
+                sorted.sort(IndexedEvent.BY_DATE);
+                return sorted.subList((int) Math.min(offset, sorted.size()),
+                        (int) Math.min(offset + size, sorted.size()));
+            }
+            for (IndexedEvent event : getDateRange(filter)) {
+                if (matches.contains(event.id) && event.isIn(filter, now) && (skip-- <= 0)) {
+                    page.add(event);
+                    if (page.size() == size) {
+                        break;
+                    }
+                }
+            }
+        } else {
+            PrimitiveIterator.OfInt ids = matches.iterator();
+            while (ids.hasNext() && (page.size() < size)) {
+                IndexedEvent event = events.get(ids.nextInt());
+                if (event.isIn(filter, now) && (skip-- <= 0)) {
+                    page.add(event);
+                }
+            }
+        }
+        return page;
+    }
+
+    private CompressedBitmap match(CombineEventFilters filter) {
+        List<CompressedBitmap> conditions = new ArrayList<>();
+        if ((filter.getCategories() != null) && (filter.getCategories().length > 0)) {
+            CompressedBitmap union = new CompressedBitmap();
+            for (Long category : filter.getCategories()) {
+                union = union.or(categories.getOrDefault(category, new CompressedBitmap()));
+            }
+            conditions.add(union);
+        }
+        if ((filter.getStates() != null) && (filter.getStates().length > 0)) {
+            CompressedBitmap union = new CompressedBitmap();
+            for (EventState state : filter.getStates()) {
+                union = union.or(states.get(state));
+            }
+            conditions.add(union);
+        }
+        if (filter.getPaid() != null) {
+            conditions.add(filter.getPaid() ? paid : free);
+        }
+        if ((filter.getOnlyAvailable() != null) && filter.getOnlyAvailable()) {
+            conditions.add(available);
+        }
+        conditions.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap matches = conditions.isEmpty() ? all : conditions.get(0);
+        for (int i = 1; i < conditions.size(); i++) {
+            matches = matches.and(conditions.get(i));
+        }
+        if ((filter.getRangeStart() == null) && (filter.getRangeEnd() == null)) {
+            matches = matches.andNot(states.get(EventState.FINISHED));
+        }
+        return matches;
+    }
+
+    private NavigableSet<IndexedEvent> getDateRange(CombineEventFilters filter) {
+        NavigableSet<IndexedEvent> range = byDate;
+        if (filter.getRangeStart() != null) {
+            range = range.tailSet(IndexedEvent.probe(filter.getRangeStart(), Integer.MIN_VALUE), true);
+        }
+        if (filter.getRangeEnd() != null) {
+            range = range.headSet(IndexedEvent.probe(filter.getRangeEnd(), Integer.MAX_VALUE), true);
+        }
+        return range;
+    }
+
+    /**
+     * A loaded row does not replace one of the same version: its request count may predate the refresh that
+     * followed the confirmation.
+     */
+    private void put(EventIndexRow row, long confirmedRequests, boolean replaceSameVersion) {
+        if (row.getId() > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = row.getId().intValue();
+        IndexedEvent current = events.get(id);
+        if (current != null) {
+            if ((current.version > row.getVersion())
+                    || ((current.version == row.getVersion()) && !replaceSameVersion)) {
+                return;
+            }
+            remove(id);
+        }
+        IndexedEvent event = new IndexedEvent(row);
+        events.put(id, event);
+        byDate.add(event);
+        all.add(id);
+        categories.computeIfAbsent(event.categoryId, category -> new CompressedBitmap()).add(id);
+        if (event.state != null) {
+            states.get(event.state).add(id);
+        }
+        if (event.paid != null) {
+            (event.paid ? paid : free).add(id);
+        }
+        if ((row.getParticipantLimit() != null) && ((row.getParticipantLimit() == 0)
+                || (confirmedRequests < row.getParticipantLimit()))) {
+            available.add(id);
+        }
+    }
+
+    private void remove(int id) {
+        IndexedEvent event = events.remove(id);
+        if (event == null) {
+            return;
+        }
+        byDate.remove(event);
+        removeFrom(id, all, paid, free, available, categories.get(event.categoryId));
+        if (event.state != null) {
+            states.get(event.state).remove(id);
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return events.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private EventShortDto toDto(IndexedEvent event) {
+        return EventShortDto.builder()
+                .id((long) event.id)
+                .title(event.title)
+                .annotation(event.annotation)
+                .eventDate(event.formattedDate)
+                .paid(event.paid)
+                .initiator(new UserShortDto(event.ownerId, event.ownerName))
+                .category(categoryCatalogue.findById(event.categoryId))
+                .confirmedRequests(0L)
+                .views(0L)
+                .build();
+    }
+
+    private static void removeFrom(int id, CompressedBitmap... bitmaps) {
+        for (CompressedBitmap bitmap : bitmaps) {
+            bitmap.remove(id);
+        }
+    }
+
+    private static final class Batch {
+        private final List<EventIndexRow> rows;
+        private final Map<Long, Long> confirmedRequests;
+
+        private Batch(List<EventIndexRow> rows, List<RequestCount> counts) {
+            this.rows = rows;
+            this.confirmedRequests = counts.stream()
+                    .collect(Collectors.toMap(RequestCount::getEventId, RequestCount::getCount));
+        }
+
+        long getConfirmedRequests(EventIndexRow row) {
+            return confirmedRequests.getOrDefault(row.getId(), 0L);
+        }
+    }
+
+    private static final class IndexedEvent {
+        private static final Comparator<IndexedEvent> BY_DATE = Comparator
+                .comparing((IndexedEvent event) -> event.eventDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(event -> event.id);
+
+        private final int id;
+        private final String title;
+        private final String annotation;
+        private final LocalDateTime eventDate;
+        private final String formattedDate;
+        private final Boolean paid;
+        private final Long ownerId;
+        private final String ownerName;
+        private final Long categoryId;
+        private final EventState state;
+        private final long version;
+
+        private IndexedEvent(EventIndexRow row) {
+            this.id = row.getId().intValue();
+            this.title = row.getTitle();
+            this.annotation = row.getAnnotation();
+            this.eventDate = row.getEventDate();
+            this.formattedDate = DateTime.dateTimeToString(row.getEventDate());
+            this.paid = row.getPaid();
+            this.ownerId = row.getOwnerId();
+            this.ownerName = row.getOwnerName();
+            this.categoryId = row.getCategoryId();
+            this.state = row.getState();
+            this.version = row.getVersion();
+        }
+
+        private IndexedEvent(LocalDateTime eventDate, int id) {
+            this.id = id;
+            this.eventDate = eventDate;
+            this.title = null;
+            this.annotation = null;
+            this.formattedDate = null;
+            this.paid = null;
+            this.ownerId = null;
+            this.ownerName = null;
+            this.categoryId = null;
+            this.state = null;
+            this.version = 0;
+        }
+
+        static IndexedEvent probe(LocalDateTime eventDate, int id) {
+            return new IndexedEvent(eventDate, id);
+        }
+
+        /**
+         * Without a range only published events may be in the past: they are finished separately, while pending and
+         * canceled events never are, so their date is checked against now.
+         */
+        boolean isIn(CombineEventFilters filter, LocalDateTime now) {
+            if ((filter.getRangeStart() == null) && (filter.getRangeEnd() == null)) {
+                return (state == EventState.PUBLISHED) || ((eventDate != null) && eventDate.isAfter(now));
+            }
+            if ((filter.getRangeStart() != null)
+                    && ((eventDate == null) || eventDate.isBefore(filter.getRangeStart()))) {
+                return false;
+            }
+            return (filter.getRangeEnd() == null)
+                    || ((eventDate != null) && !eventDate.isAfter(filter.getRangeEnd()));
+        }
+    }
+}
\ No newline at end of file
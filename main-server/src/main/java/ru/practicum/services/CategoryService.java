@@ -14,4 +14,6 @@ public interface CategoryService {
     List<CategoryDto> get(Integer from, Integer size);
 
     CategoryDto findById(long catId);
+
+    String getETag();
 }
\ No newline at end of file
@@ -21,4 +21,6 @@ public interface CompilationService {
     void deleteEvent(long compilationId, long eventId);
 
     List<CompilationDto> get(Boolean pinned, Integer from, Integer size);
+
+    String getETag();
 }
\ No newline at end of file
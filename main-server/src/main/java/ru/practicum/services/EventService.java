@@ -5,6 +5,7 @@ import ru.practicum.repositories.events.CombineEventFilters;
 import ru.practicum.states.EventSortBy;
 
 import java.util.List;
+import java.util.Set;
 
 public interface EventService {
     EventFullDto create(long ownerId, CreateEventDto createEventDto);
@@ -15,10 +16,18 @@ public interface EventService {
 
     EventFullDto findEventById(Long eventId);
 
+    byte[] findEventJson(long eventId, String version);
+
+    String getETag(long eventId);
+
     EventFullDto publish(long eventId);
 
     EventFullDto decline(long eventId);
 
+    List<EventModerationResult> publishAll(Set<Long> eventIds);
+
+    List<EventModerationResult> declineAll(Set<Long> eventIds);
+
     <T extends EventShortDto> void fullFillDto(List<T> listDto);
 
     List<EventShortDto> findShortEvents(CombineEventFilters filters, EventSortBy sort, Integer from, Integer size);
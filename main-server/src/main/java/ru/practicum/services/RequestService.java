@@ -1,6 +1,8 @@
 package ru.practicum.services;
 
 import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.RequestStatusUpdateRequest;
+import ru.practicum.dto.RequestStatusUpdateResult;
 
 import java.util.List;
 
@@ -16,4 +18,6 @@ public interface RequestService {
     RequestDto confirmRequest(long userId, long eventId, long reqId);
 
     RequestDto declineRequest(long userId, long eventId, long reqId);
+
+    RequestStatusUpdateResult updateRequestsStatus(long userId, long eventId, RequestStatusUpdateRequest update);
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
 package ru.practicum.services.implementations;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.catalogue.CategoryCatalogue;
+import ru.practicum.catalogue.CategoryChangeNotifier;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.errors.exceptions.NotFoundException;
 import ru.practicum.mappers.CategoryMapper;
@@ -13,13 +13,15 @@ import ru.practicum.repositories.CategoryRepository;
 import ru.practicum.services.CategoryService;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Service
 @Transactional(readOnly = true)
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
+    private final CategoryCatalogue categoryCatalogue;
+    private final Optional<CategoryChangeNotifier> categoryChangeNotifier;
 
     @Override
     @Transactional
@@ -29,6 +31,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
         Category category = CategoryMapper.toCategory(dto);
         category = categoryRepository.save(category);
+        categoriesChanged();
         return CategoryMapper.toCategoryDto(category);
     }
 
@@ -38,31 +41,40 @@ public class CategoryServiceImpl implements CategoryService {
         if ((dto.getId() == null) || (dto.getId() == 0)) {
             throw new IllegalArgumentException("The category id must be specified");
         }
-        Category category = CategoryMapper.toCategory(dto);
+        Category category = categoryRepository.findById(dto.getId())
+                .orElseThrow(() -> new NotFoundException("There is no category with this id!"));
+        category.setName(dto.getName());
         category = categoryRepository.save(category);
+        categoryRepository.incrementVersion(category.getId());
+        categoriesChanged();
         return CategoryMapper.toCategoryDto(category);
     }
 
     @Override
     @Transactional
     public void deleteById(long id) {
-        categoryRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("There is no category with this id!"));
+        categoryCatalogue.getCategory(id);
         categoryRepository.deleteById(id);
+        categoriesChanged();
     }
 
     @Override
     public List<CategoryDto> get(Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        return categoryRepository.findAll(pageable).stream()
-                .map(CategoryMapper::toCategoryDto)
-                .collect(Collectors.toList());
+        return categoryCatalogue.get(from, size);
     }
 
     @Override
     public CategoryDto findById(long id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("There is no category with this id!"));
-        return CategoryMapper.toCategoryDto(category);
+        return categoryCatalogue.findById(id);
+    }
+
+    @Override
+    public String getETag() {
+        return categoryCatalogue.getETag();
+    }
+
+    private void categoriesChanged() {
+        categoryCatalogue.refreshAfterCommit();
+        categoryChangeNotifier.ifPresent(CategoryChangeNotifier::notifyChange);
     }
-}
\ No newline at end of file
+}
@@ -13,6 +13,7 @@ import ru.practicum.models.Event;
 import ru.practicum.models.EventsCompilation;
 import ru.practicum.repositories.CompilationRepository;
 import ru.practicum.repositories.EventsCompilationRepository;
+import ru.practicum.repositories.TableVersion;
 import ru.practicum.repositories.events.EventRepository;
 import ru.practicum.services.CompilationService;
 import org.springframework.transaction.annotation.Transactional;
@@ -62,6 +63,7 @@ public class CompilationServiceImpl implements CompilationService {
     public void createEvent(long compilationId, long eventId) {
         EventsCompilation eventsList = new EventsCompilation(null, compilationId, checkEvent(eventId));
         eventsCompilationRepository.save(eventsList);
+        compilationRepository.incrementVersion(compilationId);
     }
 
     @Override
@@ -70,6 +72,7 @@ public class CompilationServiceImpl implements CompilationService {
         Compilation compilation = checkCompilation(id);
         compilation.setPinned(true);
         compilationRepository.save(compilation);
+        compilationRepository.incrementVersion(compilation.getId());
     }
 
     @Override
@@ -78,6 +81,7 @@ public class CompilationServiceImpl implements CompilationService {
         Compilation compilation = checkCompilation(id);
         compilation.setPinned(false);
         compilationRepository.save(compilation);
+        compilationRepository.incrementVersion(compilation.getId());
     }
 
     @Override
@@ -88,6 +92,7 @@ public class CompilationServiceImpl implements CompilationService {
                         .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
 
         eventsCompilationRepository.deleteById(eventsList.getId());
+        compilationRepository.incrementVersion(compilationId);
     }
 
     @Override
@@ -104,6 +109,15 @@ public class CompilationServiceImpl implements CompilationService {
         }
     }
 
+    @Override
+    public String getETag() {
+        TableVersion compilations = compilationRepository.getTableVersion();
+        TableVersion events = compilationRepository.getEventsVersion();
+        return "compilations-" + compilations.getCount() + "-" + compilations.getVersions() + "-"
+                + compilations.getMaxId() + "-" + events.getCount() + "-" + events.getVersions() + "-"
+                + events.getMaxId();
+    }
+
     private Event checkEvent(Long id) {
         return eventRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
@@ -5,27 +5,35 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.availability.AvailabilityBroadcaster;
+import ru.practicum.cache.EventResponseCache;
+import ru.practicum.catalogue.CategoryCatalogue;
 import ru.practicum.dto.events.*;
 import ru.practicum.errors.exceptions.BadRequestException;
 import ru.practicum.errors.exceptions.NotFoundException;
+import ru.practicum.lifecycle.EventLifecycleScheduler;
 import ru.practicum.mappers.EventMapper;
 import ru.practicum.models.Category;
 import ru.practicum.models.Event;
 import ru.practicum.models.User;
-import ru.practicum.repositories.CategoryRepository;
 import ru.practicum.repositories.RequestRepository;
 import ru.practicum.repositories.UserRepository;
 import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventModerationState;
 import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.repositories.events.EventVersion;
+import ru.practicum.search.EventSearchIndex;
 import ru.practicum.services.EventService;
 import ru.practicum.states.EventSortBy;
 import ru.practicum.states.EventState;
+import ru.practicum.states.ModerationOutcome;
 import ru.practicum.statistics.service.StatisticService;
 import ru.practicum.utilities.DateTime;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,11 +41,15 @@ import java.util.stream.Collectors;
 @Service
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalogue categoryCatalogue;
     private final RequestRepository requestRepository;
     private final StatisticService statisticService;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final EventLifecycleScheduler lifecycleScheduler;
+    private final EventSearchIndex searchIndex;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final EventResponseCache responseCache;
 
     @Override
     @Transactional
@@ -45,13 +57,13 @@ public class EventServiceImpl implements EventService {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("The user with this id does not exist!"));
 
-        Category category = categoryRepository.findById(createEventDto.getCategory())
-                .orElseThrow(() -> new NotFoundException("There is no category with this id!"));
+        Category category = categoryCatalogue.getCategory(createEventDto.getCategory());
 
         Event event = EventMapper.toEvent(createEventDto);
         event.setOwner(owner);
         event.setCategory(category);
         event = eventRepository.save(event);
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
         return EventMapper.toEventFullDto(event);
     }
 
@@ -72,13 +84,17 @@ public class EventServiceImpl implements EventService {
         }
         EventMapper.prepareToUpdate(updateEventRequest, sourceEvent);
         Event event = eventRepository.save(sourceEvent);
+        eventRepository.incrementVersion(sourceEvent.getId());
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
+        responseCache.evictAfterCommit(List.of(event.getId()));
+        availabilityBroadcaster.changedAfterCommit(event.getId());
         return getFullDto(event);
     }
 
     @Override
     public List<EventShortDto> findUserEvents(long id, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        List<EventShortDto> events = eventRepository.findEventsByOwnerId(id, pageable).stream()
+        List<EventShortDto> events = eventRepository.findShortEventsByOwnerId(id, pageable).stream()
                 .map(EventMapper::toEventShortDto)
                 .collect(Collectors.toList());
 
@@ -96,6 +112,9 @@ public class EventServiceImpl implements EventService {
         }
         event.setState(EventState.CANCELED);
         eventRepository.save(event);
+        eventRepository.incrementVersion(event.getId());
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
+        responseCache.evictAfterCommit(List.of(event.getId()));
         return getFullDto(event);
     }
 
@@ -105,6 +124,13 @@ public class EventServiceImpl implements EventService {
         Event initialEvent = eventRepository.findById(eventId).get();
         EventMapper.prepareToUpdate(adminUpdateEvent, initialEvent);
         Event event = eventRepository.save(initialEvent);
+        eventRepository.incrementVersion(initialEvent.getId());
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
+        responseCache.evictAfterCommit(List.of(event.getId()));
+        availabilityBroadcaster.changedAfterCommit(event.getId());
+        if (event.getState() == EventState.PUBLISHED) {
+            lifecycleScheduler.schedule(event.getId(), event.getEventDate());
+        }
         return getFullDto(event);
     }
 
@@ -131,11 +157,12 @@ public class EventServiceImpl implements EventService {
     public List<EventShortDto> findShortEvents(CombineEventFilters combineEventFilters, EventSortBy sort,
                                                Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        List<Event> events = eventRepository.extendedSearchByFilters(combineEventFilters, sort, pageable);
-
-        List<EventShortDto> eventShortDto = events.stream()
-                .map(EventMapper::toEventShortDto)
-                .collect(Collectors.toList());
+        Optional<List<EventShortDto>> indexed = searchIndex.search(combineEventFilters, sort, pageable.getOffset(),
+                size);
+        List<EventShortDto> eventShortDto = indexed.orElseGet(() ->
+                eventRepository.shortSearchByFilters(combineEventFilters, sort, pageable).stream()
+                        .map(EventMapper::toEventShortDto)
+                        .collect(Collectors.toList()));
         fullFillDto(eventShortDto);
 
         if (sort == EventSortBy.VIEWS) {
@@ -147,12 +174,29 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    @Override
+    public String getETag(long eventId) {
+        EventVersion version = eventRepository.findVersion(eventId)
+                .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
+        return "event-" + eventId + "-" + version.getVersion() + "-" + version.getCategoryVersion();
+    }
+
     @Override
     public EventFullDto findEventById(Long eventId) {
         Event event = getAndCheckEvent(eventId);
         return getFullDto(event);
     }
 
+    @Override
+    public byte[] findEventJson(long eventId, String version) {
+        EventResponseCache.Body body = responseCache.get(eventId, version);
+        if (body == null) {
+            body = responseCache.put(eventId, version, EventMapper.toEventFullDto(getAndCheckEvent(eventId)));
+        }
+        return body.render(requestRepository.countApprovedRequests(eventId),
+                statisticService.getEventViewCount(eventId));
+    }
+
     @Override
     @Transactional
     public <T extends EventShortDto> void fullFillDto(List<T> listDto) {
@@ -180,6 +224,10 @@ public class EventServiceImpl implements EventService {
         event.setPublished(publishTime);
         event.setState(EventState.PUBLISHED);
         eventRepository.save(event);
+        eventRepository.incrementVersion(event.getId());
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
+        responseCache.evictAfterCommit(List.of(event.getId()));
+        lifecycleScheduler.schedule(event.getId(), event.getEventDate());
         return getFullDto(event);
     }
 
@@ -188,14 +236,100 @@ public class EventServiceImpl implements EventService {
     public EventFullDto decline(long eventId) {
         Event event = getAndCheckEvent(eventId);
 
-        if (event.getState() == EventState.PUBLISHED) {
+        if ((event.getState() == EventState.PUBLISHED) || (event.getState() == EventState.FINISHED)) {
             throw new BadRequestException("You can't publish this event!");
         }
         event.setState(EventState.CANCELED);
         eventRepository.save(event);
+        eventRepository.incrementVersion(event.getId());
+        searchIndex.refreshAfterCommit(List.of(event.getId()));
+        responseCache.evictAfterCommit(List.of(event.getId()));
         return getFullDto(event);
     }
 
+    @Override
+    @Transactional
+    public List<EventModerationResult> publishAll(Set<Long> eventIds) {
+        LocalDateTime publishTime = LocalDateTime.now();
+        LocalDateTime deadline = publishTime.plusHours(1);
+        Map<Long, EventModerationState> states = getModerationStates(eventIds);
+        Map<Long, ModerationOutcome> outcomes = eventIds.stream()
+                .collect(Collectors.toMap(id -> id, id -> getPublishOutcome(states.get(id), deadline)));
+        List<Long> publishedIds = getIds(outcomes, ModerationOutcome.PUBLISHED);
+        if (!publishedIds.isEmpty()) {
+            eventRepository.publishPending(publishedIds, publishTime, deadline);
+            searchIndex.refreshAfterCommit(publishedIds);
+            responseCache.evictAfterCommit(publishedIds);
+            publishedIds.forEach(id -> lifecycleScheduler.schedule(id, states.get(id).getEventDate()));
+        }
+        return toResults(outcomes);
+    }
+
+    @Override
+    @Transactional
+    public List<EventModerationResult> declineAll(Set<Long> eventIds) {
+        Map<Long, EventModerationState> states = getModerationStates(eventIds);
+        Map<Long, ModerationOutcome> outcomes = eventIds.stream()
+                .collect(Collectors.toMap(id -> id, id -> getDeclineOutcome(states.get(id))));
+        List<Long> rejectedIds = getIds(outcomes, ModerationOutcome.REJECTED);
+        if (!rejectedIds.isEmpty()) {
+            eventRepository.cancelPending(rejectedIds);
+            searchIndex.refreshAfterCommit(rejectedIds);
+            responseCache.evictAfterCommit(rejectedIds);
+        }
+        return toResults(outcomes);
+    }
+
+    /**
+     * Locks the rows, so the outcomes read here are the ones the following update applies.
+     */
+    private Map<Long, EventModerationState> getModerationStates(Set<Long> eventIds) {
+        return eventRepository.findModerationStatesForUpdate(eventIds).stream()
+                .collect(Collectors.toMap(EventModerationState::getId, state -> state));
+    }
+
+    private static List<Long> getIds(Map<Long, ModerationOutcome> outcomes, ModerationOutcome outcome) {
+        return outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() == outcome)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static List<EventModerationResult> toResults(Map<Long, ModerationOutcome> outcomes) {
+        return outcomes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new EventModerationResult(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private ModerationOutcome getPublishOutcome(EventModerationState state, LocalDateTime deadline) {
+        if (state == null) {
+            return ModerationOutcome.NOT_FOUND;
+        }
+        if (state.getState() == EventState.PUBLISHED) {
+            return ModerationOutcome.ALREADY_PUBLISHED;
+        }
+        if (state.getState() != EventState.PENDING) {
+            return ModerationOutcome.NOT_PENDING;
+        }
+        return state.getEventDate().isAfter(deadline)
+                ? ModerationOutcome.PUBLISHED
+                : ModerationOutcome.INCORRECT_TIMELINE;
+    }
+
+    private ModerationOutcome getDeclineOutcome(EventModerationState state) {
+        if (state == null) {
+            return ModerationOutcome.NOT_FOUND;
+        }
+        if ((state.getState() == EventState.PUBLISHED) || (state.getState() == EventState.FINISHED)) {
+            return ModerationOutcome.ALREADY_PUBLISHED;
+        }
+        if (state.getState() != EventState.PENDING) {
+            return ModerationOutcome.NOT_PENDING;
+        }
+        return ModerationOutcome.REJECTED;
+    }
+
     private EventFullDto getFullDto(Event event) {
         EventFullDto eventFullDto = EventMapper.toEventFullDto(event);
         eventFullDto.setViews(statisticService.getEventViewCount(event.getId()));
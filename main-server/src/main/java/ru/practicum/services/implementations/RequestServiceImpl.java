@@ -3,7 +3,10 @@ package ru.practicum.services.implementations;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.availability.AvailabilityBroadcaster;
 import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.RequestStatusUpdateRequest;
+import ru.practicum.dto.RequestStatusUpdateResult;
 import ru.practicum.errors.exceptions.BadRequestException;
 import ru.practicum.errors.exceptions.NotFoundException;
 import ru.practicum.mappers.RequestMapper;
@@ -11,11 +14,13 @@ import ru.practicum.models.Event;
 import ru.practicum.models.Request;
 import ru.practicum.repositories.RequestRepository;
 import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.search.EventSearchIndex;
 import ru.practicum.services.RequestService;
 import ru.practicum.states.EventState;
 import ru.practicum.states.RequestState;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,11 +30,13 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
     private final EventRepository eventRepository;
     private final RequestRepository requestRepository;
+    private final EventSearchIndex searchIndex;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
     @Override
     @Transactional
     public RequestDto create(long userId, Long eventId) {
-        Event event = eventRepository.findById(eventId)
+        Event event = eventRepository.findByIdForUpdate(eventId)
                 .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
 
         if (event.getOwner().getId().equals(userId)) {
@@ -38,6 +45,9 @@ public class RequestServiceImpl implements RequestService {
         if (event.getState() != EventState.PUBLISHED) {
             throw new BadRequestException("The event has not yet been published!");
         }
+        if (requestRepository.existsByUserIdAndEventId(userId, eventId)) {
+            throw new BadRequestException("The request has already been sent!");
+        }
         checkRequestLimit(event);
         Request request = Request.builder()
                 .userId(userId)
@@ -48,6 +58,9 @@ public class RequestServiceImpl implements RequestService {
 
         if (!event.getRequestModeration()) {
             request.setStatus(RequestState.CONFIRMED);
+            eventRepository.incrementVersion(eventId);
+            searchIndex.refreshAfterCommit(List.of(eventId));
+            availabilityBroadcaster.changedAfterCommit(eventId);
         }
         return RequestMapper.toParticipationRequestDto(requestRepository.save(request));
     }
@@ -72,7 +85,11 @@ public class RequestServiceImpl implements RequestService {
     public RequestDto remove(long userId, long requestId) {
         Request request = getAndCheckRequest(requestId);
 
-
+        if (request.getStatus() == RequestState.CONFIRMED) {
+            eventRepository.incrementVersion(request.getEventId());
+            searchIndex.refreshAfterCommit(List.of(request.getEventId()));
+            availabilityBroadcaster.changedAfterCommit(request.getEventId());
+        }
         request.setStatus(RequestState.CANCELED);
         return RequestMapper.toParticipationRequestDto(requestRepository.save(request));
     }
@@ -80,7 +97,7 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional
     public RequestDto confirmRequest(long userId, long eventId, long requestId) {
-        Event event = getAndCheckEvent(userId, eventId);
+        Event event = getAndLockEvent(userId, eventId);
         Request request = getAndCheckRequest(requestId);
 
         if (!request.getEventId().equals(eventId)) {
@@ -89,6 +106,9 @@ public class RequestServiceImpl implements RequestService {
         checkRequestLimit(event);
         request.setStatus(RequestState.CONFIRMED);
         requestRepository.save(request);
+        eventRepository.incrementVersion(eventId);
+        searchIndex.refreshAfterCommit(List.of(eventId));
+        availabilityBroadcaster.changedAfterCommit(eventId);
 
         if (event.getParticipantLimit() > 0) {
             long reqLimit = event.getParticipantLimit();
@@ -109,19 +129,99 @@ public class RequestServiceImpl implements RequestService {
         if (!request.getEventId().equals(eventId)) {
             throw new BadRequestException("The request does not match the event!");
         }
+        if (request.getStatus() == RequestState.CONFIRMED) {
+            eventRepository.incrementVersion(eventId);
+            searchIndex.refreshAfterCommit(List.of(eventId));
+            availabilityBroadcaster.changedAfterCommit(eventId);
+        }
         request.setStatus(RequestState.REJECTED);
         requestRepository.save(request);
         return RequestMapper.toParticipationRequestDto(request);
     }
 
+    @Override
+    @Transactional
+    public RequestStatusUpdateResult updateRequestsStatus(long userId, long eventId,
+                                                          RequestStatusUpdateRequest update) {
+        if ((update.getStatus() != RequestState.CONFIRMED) && (update.getStatus() != RequestState.REJECTED)) {
+            throw new IllegalArgumentException("Requests can only be CONFIRMED or REJECTED");
+        }
+        Event event = getAndLockEvent(userId, eventId);
+        List<Request> requests = requestRepository.findAllById(update.getRequestIds());
+
+        if (requests.size() != update.getRequestIds().size()) {
+            throw new NotFoundException("The application with this id does not exist!");
+        }
+        for (Request request : requests) {
+            if (!request.getEventId().equals(eventId)) {
+                throw new BadRequestException("The request does not match the event!");
+            }
+            if (request.getStatus() != RequestState.PENDING) {
+                throw new BadRequestException("Only PENDING requests can be confirmed or rejected!");
+            }
+        }
+        requests.sort(Comparator.comparing(Request::getCreated).thenComparing(Request::getId));
+
+        int confirmedCount = 0;
+        if (update.getStatus() == RequestState.CONFIRMED) {
+            confirmedCount = requests.size();
+            if (event.getParticipantLimit() > 0) {
+                long freePlaces = event.getParticipantLimit() - requestRepository.countApprovedRequests(eventId);
+                confirmedCount = (int) Math.max(0, Math.min(freePlaces, requests.size()));
+            }
+        }
+        List<Request> confirmed = requests.subList(0, confirmedCount);
+        List<Request> rejected = requests.subList(confirmedCount, requests.size());
+        updateStatus(confirmed, RequestState.CONFIRMED);
+        updateStatus(rejected, RequestState.REJECTED);
+
+        if (!confirmed.isEmpty()) {
+            eventRepository.incrementVersion(eventId);
+            searchIndex.refreshAfterCommit(List.of(eventId));
+            availabilityBroadcaster.changedAfterCommit(eventId);
+        }
+        if ((event.getParticipantLimit() > 0) && !confirmed.isEmpty()
+                && (requestRepository.countApprovedRequests(eventId) >= event.getParticipantLimit())) {
+            requestRepository.setRejectedStatusToPendingRequests(eventId);
+        }
+        return new RequestStatusUpdateResult(toDto(confirmed, RequestState.CONFIRMED),
+                toDto(rejected, RequestState.REJECTED));
+    }
+
+    private void updateStatus(List<Request> requests, RequestState status) {
+        if (!requests.isEmpty()) {
+            requestRepository.updateStatus(requests.stream().map(Request::getId).collect(Collectors.toList()),
+                    status);
+        }
+    }
+
+    private List<RequestDto> toDto(List<Request> requests, RequestState status) {
+        return requests.stream()
+                .map(RequestMapper::toParticipationRequestDto)
+                .peek(dto -> dto.setStatus(status))
+                .collect(Collectors.toList());
+    }
+
     private Event getAndCheckEvent(long ownerId, Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
 
+        checkOwner(event, ownerId);
+        return event;
+    }
+
+    private Event getAndLockEvent(long ownerId, long eventId) {
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new NotFoundException("The event with this id does not exist!"));
+
+        checkOwner(event, ownerId);
+        return event;
+    }
+
+    private void checkOwner(Event event, long ownerId) {
         if (!event.getOwner().getId().equals(ownerId)) {
             throw new BadRequestException("You can't access someone else's event!");
         }
-        return event;
     }
 
     private Request getAndCheckRequest(Long requestId) {
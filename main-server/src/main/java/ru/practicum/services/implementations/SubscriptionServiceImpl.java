@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.SubscriptionDto;
 import ru.practicum.dto.events.EventShortDto;
+import ru.practicum.errors.exceptions.BadRequestException;
 import ru.practicum.errors.exceptions.NotFoundException;
 import ru.practicum.mappers.EventMapper;
 import ru.practicum.mappers.SubscriptionMapper;
@@ -35,6 +36,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         User friend = userRepository.findById(friendId)
                 .orElseThrow(() -> new NotFoundException("The user with this id does not exist!"));
 
+        if (subscriptionRepository.existsByUserIdAndFriendId(userId, friendId)) {
+            throw new BadRequestException("The subscription already exists!");
+        }
         Subscription subscription = Subscription.builder()
                 .user(user)
                 .friend(friend)
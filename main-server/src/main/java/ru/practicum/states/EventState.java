@@ -3,5 +3,6 @@ package ru.practicum.states;
 public enum EventState {
     PENDING,
     PUBLISHED,
-    CANCELED
+    CANCELED,
+    FINISHED
 }
\ No newline at end of file
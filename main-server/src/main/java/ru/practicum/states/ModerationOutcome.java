@@ -0,0 +1,10 @@
+package ru.practicum.states;
+
+public enum ModerationOutcome {
+    PUBLISHED,
+    REJECTED,
+    NOT_FOUND,
+    NOT_PENDING,
+    ALREADY_PUBLISHED,
+    INCORRECT_TIMELINE
+}
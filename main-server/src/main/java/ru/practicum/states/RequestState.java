@@ -4,5 +4,6 @@ public enum RequestState {
     PENDING,
     CONFIRMED,
     CANCELED,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.statistics.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to nodes by consistent hashing: every node owns {@code virtualNodes} points on a ring of MD5 hashes,
+ * and a key belongs to the first point at or after its own hash. Adding a node only moves the keys that now fall
+ * on its points, about 1/n of them, and all of them to the new node.
+ */
+public class ConsistentHashRing {
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final List<String> nodes;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public String getNode(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return (entry == null) ? ring.firstEntry().getValue() : entry.getValue();
+    }
+
+    public Map<String, List<String>> groupByNode(String[] keys) {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.computeIfAbsent(getNode(key), node -> new ArrayList<>()).add(key);
+        }
+        return result;
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.statistics.client;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
@@ -11,27 +12,56 @@ import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.statistics.model.EndpointHit;
 import ru.practicum.statistics.model.ViewStats;
 
+import javax.annotation.PreDestroy;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static ru.practicum.utilities.DateTime.dateTimeToString;
 
+/**
+ * Talks to one or more stats-server nodes. Uris are spread over {@code stats-server.urls} by consistent hashing,
+ * so every hit and every count of a uri goes to the node that owns it; lookups for uris on several nodes are sent
+ * to all of them in parallel and merged.
+ */
 @Service
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "http", matchIfMissing = true)
 public class HttpClientImpl implements HttpClient {
     private final RestTemplate rest;
-    private final String url;
+    private final ConsistentHashRing ring;
+    private final ExecutorService scatterExecutor;
 
     private static final String APP_NAME = "service_for_finding_friends_to_go_anywhere";
     private static final String API_HIT = "/hit";
     private static final String API_STATS = "/stats";
 
-    public HttpClientImpl(@Value("${stats-server.url}") String url, RestTemplateBuilder builder) {
+    public HttpClientImpl(@Value("${stats-server.urls:${stats-server.url}}") List<String> urls,
+                          @Value("${stats-server.virtual-nodes:160}") int virtualNodes,
+                          @Value("${stats-server.scatter-threads:16}") int scatterThreads,
+                          RestTemplateBuilder builder) {
         this.rest = builder.build();
-        this.url = url;
+        this.ring = new ConsistentHashRing(urls, virtualNodes);
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(scatterThreads, task -> {
+            Thread thread = new Thread(task, "stats-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
         rest.setRequestFactory(new HttpComponentsClientHttpRequestFactory());
     }
 
+    @PreDestroy
+    public void stop() {
+        scatterExecutor.shutdown();
+    }
+
     @Override
     public HttpStatus addStatistics(String uri, String ip) {
         EndpointHit body = new EndpointHit(null, APP_NAME, uri, ip, null);
@@ -39,7 +69,7 @@ public class HttpClientImpl implements HttpClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         HttpEntity<EndpointHit> entity = new HttpEntity<>(body, headers);
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url + API_HIT);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(ring.getNode(uri) + API_HIT);
         ResponseEntity<Object> response = rest.exchange(
                 uriBuilder.build().encode().toUri(),
                 HttpMethod.POST,
@@ -52,9 +82,31 @@ public class HttpClientImpl implements HttpClient {
     @Override
     public ResponseEntity<List<ViewStats>> getStatistics(LocalDateTime start, LocalDateTime end, String[] uris,
                                                          Boolean unique) {
+        Map<String, List<String>> shards = ring.groupByNode(uris);
+        if (shards.size() <= 1) {
+            String node = shards.isEmpty() ? ring.getNodes().get(0) : shards.keySet().iterator().next();
+            return getStatistics(node, start, end, uris, unique);
+        }
+        List<CompletableFuture<ResponseEntity<List<ViewStats>>>> responses = new ArrayList<>();
+        shards.forEach((node, shardUris) -> responses.add(CompletableFuture.supplyAsync(
+                () -> getStatistics(node, start, end, shardUris.toArray(new String[0]), unique), scatterExecutor)));
+
+        List<ViewStats> merged = new ArrayList<>();
+        for (CompletableFuture<ResponseEntity<List<ViewStats>>> future : responses) {
+            ResponseEntity<List<ViewStats>> response = join(future);
+            if (response.getStatusCode() != HttpStatus.OK) {
+                return response;
+            }
+            merged.addAll(response.getBody());
+        }
+        return ResponseEntity.ok(merged);
+    }
+
+    private ResponseEntity<List<ViewStats>> getStatistics(String node, LocalDateTime start, LocalDateTime end,
+                                                          String[] uris, Boolean unique) {
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url + API_STATS);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(node + API_STATS);
         uriBuilder.queryParam("start", dateTimeToString(start));
         uriBuilder.queryParam("end", dateTimeToString(end));
         uriBuilder.queryParam("unique", unique);
@@ -65,4 +117,15 @@ public class HttpClientImpl implements HttpClient {
         return rest.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<List<ViewStats>>() {
         });
     }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.practicum.statistics.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs the stats engine inside main-server, on the main database and with the stats-server schema.
+ * Its repository and entity are added to the ones {@link ru.practicum.MainServerApp} maps only in this mode.
+ */
+@Configuration
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "embedded")
+@ComponentScan("ru.practicum.stats")
+@EnableJpaRepositories("ru.practicum.stats.repository")
+@EntityScan("ru.practicum.stats.model")
+public class EmbeddedStatisticsConfig {
+    private static final String SCHEMA = "stats-schema.sql";
+
+    @Bean
+    public DataSourceInitializer statisticsSchemaInitializer(DataSource dataSource) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)));
+        return initializer;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package ru.practicum.statistics.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.stats.model.Statistics;
+import ru.practicum.stats.model.ViewStats;
+import ru.practicum.stats.service.StatisticsService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Calls the stats engine in-process instead of going to stats-server over HTTP.
+ */
+@Service
+@RequiredArgsConstructor
+@Primary
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "embedded")
+public class EmbeddedStatisticServiceImpl implements StatisticService {
+    private static final String APP_NAME = "service_for_finding_friends_to_go_anywhere";
+
+    private final StatisticsService statisticsService;
+    private final EventRepository eventRepository;
+
+    @Override
+    public Map<Long, Long> getEventViewCount(Set<Long> eventIds) {
+        Long[] ids = eventIds.toArray(new Long[eventIds.size()]);
+        LocalDateTime minDate = eventRepository.getMinCreatedDate(ids);
+        Map<Long, Long> result = eventIds.stream().collect(Collectors.toMap(l -> l, l -> 0L));
+        if (minDate == null) {
+            // a batch may hold only events created in another caller's transaction, not visible here yet
+            return result;
+        }
+        Map<String, Long> uris = eventIds.stream().collect(Collectors.toMap((l -> "/events/" + l.toString()),
+                (l -> l)));
+
+        List<ViewStats> viewStats = statisticsService.getStatistic(
+                minDate,
+                LocalDateTime.now(),
+                uris.keySet().toArray(new String[uris.keySet().size()]),
+                false);
+
+        viewStats.forEach(vs -> result.put(uris.get(vs.getUri()), vs.getHits()));
+        return result;
+    }
+
+    @Override
+    public long getEventViewCount(long id) {
+        return getEventViewCount(Set.of(id)).get(id);
+    }
+
+    @Override
+    public void addStatistics(HttpServletRequest request) {
+        statisticsService.add(new Statistics(APP_NAME, request.getRequestURI(), request.getRemoteAddr(),
+                LocalDateTime.now()));
+    }
+}
\ No newline at end of file
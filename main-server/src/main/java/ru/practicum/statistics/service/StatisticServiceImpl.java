@@ -1,6 +1,8 @@
 package ru.practicum.statistics.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,17 +19,51 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Counts views through stats-server. Concurrent lookups of the same events are shared by {@link ViewCountCoalescer}.
+ */
 @Service
-@RequiredArgsConstructor
 @Primary
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "http", matchIfMissing = true)
 public class StatisticServiceImpl implements StatisticService {
     private final HttpClient client;
     private final EventRepository eventRepository;
+    private final ViewCountCoalescer coalescer;
+
+    public StatisticServiceImpl(HttpClient client,
+                                EventRepository eventRepository,
+                                MeterRegistry registry,
+                                @Value("${statistics.coalescing.window-ms:0}") long windowMillis,
+                                @Value("${statistics.coalescing.max-batch:100}") int maxBatch) {
+        this.client = client;
+        this.eventRepository = eventRepository;
+        this.coalescer = new ViewCountCoalescer(this::fetchEventViewCount, windowMillis, maxBatch);
+        coalescer.bindTo(registry);
+    }
 
     @Override
     public Map<Long, Long> getEventViewCount(Set<Long> eventIds) {
+        return coalescer.get(eventIds);
+    }
+
+    @Override
+    public long getEventViewCount(long id) {
+        return getEventViewCount(Set.of(id)).get(id);
+    }
+
+    @Override
+    public void addStatistics(HttpServletRequest request) {
+        client.addStatistics(request.getRequestURI(), request.getRemoteAddr());
+    }
+
+    private Map<Long, Long> fetchEventViewCount(Set<Long> eventIds) {
         Long[] ids = eventIds.toArray(new Long[eventIds.size()]);
         LocalDateTime minDate = eventRepository.getMinCreatedDate(ids);
+        Map<Long, Long> result = eventIds.stream().collect(Collectors.toMap(l -> l, l -> 0L));
+        if (minDate == null) {
+            // a batch may hold only events created in another caller's transaction, not visible here yet
+            return result;
+        }
         Map<String, Long> uris = eventIds.stream().collect(Collectors.toMap((l -> "/events/" + l.toString()),
                 (l -> l)));
 
@@ -41,7 +77,6 @@ public class StatisticServiceImpl implements StatisticService {
             throw new UnavailableStatisticsException("Error in the statistics service! " + answer.getStatusCode());
         }
         List<ViewStats> viewStats = answer.getBody();
-        Map<Long, Long> result = eventIds.stream().collect(Collectors.toMap(l -> l, l -> 0L));
 
         viewStats.forEach(vs -> {
             Long eventId = uris.get(vs.getUri());
@@ -50,14 +85,4 @@ public class StatisticServiceImpl implements StatisticService {
         });
         return result;
     }
-
-    @Override
-    public long getEventViewCount(long id) {
-        return getEventViewCount(Set.of(id)).get(id);
-    }
-
-    @Override
-    public void addStatistics(HttpServletRequest request) {
-        client.addStatistics(request.getRequestURI(), request.getRemoteAddr());
-    }
 }
\ No newline at end of file
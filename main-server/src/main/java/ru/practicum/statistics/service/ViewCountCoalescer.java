@@ -0,0 +1,149 @@
+package ru.practicum.statistics.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Shares view count lookups between concurrent callers.
+ * An id that is already being fetched is not asked for again: the caller waits for the running lookup.
+ * New ids are collected for up to {@code window} into one batch, fetched by the caller that opened it,
+ * or by the caller that fills it up to {@code maxBatch}; with a zero window every caller fetches its own new ids.
+ */
+public class ViewCountCoalescer implements MeterBinder {
+    private final Function<Set<Long>, Map<Long, Long>> loader;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Map<Long, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder joinedIds = new LongAdder();
+    private final LongAdder fetchedIds = new LongAdder();
+    private DistributionSummary batchSizes;
+    private Set<Long> openBatch;
+
+    public ViewCountCoalescer(Function<Set<Long>, Map<Long, Long>> loader, long windowMillis, int maxBatch) {
+        this.loader = loader;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatch = maxBatch;
+    }
+
+    public Map<Long, Long> get(Set<Long> ids) {
+        lookups.increment();
+        Map<Long, CompletableFuture<Long>> futures = new HashMap<>();
+        Set<Long> batch = null;
+        Set<Long> ready = null;
+        boolean opened = false;
+        synchronized (lock) {
+            for (Long id : ids) {
+                CompletableFuture<Long> future = inFlight.get(id);
+                if (future != null) {
+                    joinedIds.increment();
+                } else {
+                    future = new CompletableFuture<>();
+                    inFlight.put(id, future);
+                    if (openBatch == null) {
+                        openBatch = new LinkedHashSet<>();
+                        opened = true;
+                    }
+                    openBatch.add(id);
+                    batch = openBatch;
+                }
+                futures.put(id, future);
+            }
+            if ((batch != null) && ((windowNanos == 0) || (batch.size() >= maxBatch))) {
+                ready = close(batch);
+            }
+        }
+        if (opened && (ready == null)) {
+            LockSupport.parkNanos(windowNanos);
+            synchronized (lock) {
+                ready = close(batch);
+            }
+        }
+        if (ready != null) {
+            fetch(ready);
+        }
+
+        Map<Long, Long> result = new HashMap<>();
+        futures.forEach((id, future) -> result.put(id, join(future)));
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("statistics.coalescing.lookups", lookups, LongAdder::sum)
+                .description("View count lookups asked for by callers")
+                .register(registry);
+        FunctionCounter.builder("statistics.coalescing.calls", calls, LongAdder::sum)
+                .description("View count requests sent to the statistics service")
+                .register(registry);
+        FunctionCounter.builder("statistics.coalescing.ids", joinedIds, LongAdder::sum)
+                .description("Event ids answered by a lookup already in flight or fetched in a new one")
+                .tag("result", "joined")
+                .register(registry);
+        FunctionCounter.builder("statistics.coalescing.ids", fetchedIds, LongAdder::sum)
+                .description("Event ids answered by a lookup already in flight or fetched in a new one")
+                .tag("result", "fetched")
+                .register(registry);
+        Gauge.builder("statistics.coalescing.ratio", this,
+                        c -> c.lookups.sum() / (double) Math.max(1, c.calls.sum()))
+                .description("Lookups per request sent to the statistics service")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("statistics.coalescing.batch.size")
+                .description("Event ids per request sent to the statistics service")
+                .register(registry);
+    }
+
+    private Set<Long> close(Set<Long> batch) {
+        if (openBatch != batch) {
+            return null;
+        }
+        openBatch = null;
+        return batch;
+    }
+
+    private void fetch(Set<Long> batch) {
+        calls.increment();
+        fetchedIds.add(batch.size());
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        try {
+            Map<Long, Long> counts = loader.apply(batch);
+            for (Long id : batch) {
+                inFlight.remove(id).complete(counts.getOrDefault(id, 0L));
+            }
+        } catch (RuntimeException | Error e) {
+            for (Long id : batch) {
+                inFlight.remove(id).completeExceptionally(e);
+            }
+        }
+    }
+
+    private static Long join(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,234 @@
+package ru.practicum.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.events.EventShortDto;
+import ru.practicum.mappers.EventMapper;
+import ru.practicum.models.Category;
+import ru.practicum.models.Event;
+import ru.practicum.models.User;
+import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.services.EventService;
+import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+import ru.practicum.statistics.client.HttpClient;
+import ru.practicum.statistics.service.StatisticService;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the read paths of the public event endpoints from background threads after startup: search, the mapper,
+ * Jackson and the statistics client, on as many threads as it takes to open several pooled connections. Every call
+ * also asks stats-server for the views of a sample URI, so the client pool is opened even on an empty catalogue,
+ * where view counts need no lookup. Calls go in rounds; warm-up ends once the median call time of a round stays within the tolerance of the previous one for
+ * a few rounds, or when time runs out. {@link WarmUpHealthIndicator} keeps readiness out of service until then.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUp {
+    private static final EventSortBy[] SORTS = {EventSortBy.EVENT_DATE, EventSortBy.VIEWS};
+    private static final String[] SAMPLE_URIS = {"/events/0"};
+
+    private final EventService eventService;
+    private final StatisticService statisticService;
+    private final HttpClient statsClient;
+    private final ObjectMapper objectMapper;
+    private final int threads;
+    private final int roundCalls;
+    private final int steadyRounds;
+    private final double tolerance;
+    private final long timeoutNanos;
+    private final List<CombineEventFilters> filters;
+    private final Event sample;
+    private final LocalDateTime statsStart;
+    private final LocalDateTime statsEnd;
+    private final AtomicInteger workerNumber = new AtomicInteger();
+    private final ExecutorService workers;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean finished;
+    private volatile int rounds;
+    private volatile double firstRoundMillis;
+    private volatile double lastRoundMillis;
+    private volatile long durationMillis;
+
+    public WarmUp(EventService eventService, StatisticService statisticService, ObjectMapper objectMapper,
+                  ObjectProvider<HttpClient> statsClient,
+                  @Value("${warm-up.threads:2}") int threads,
+                  @Value("${warm-up.round-calls:50}") int roundCalls,
+                  @Value("${warm-up.steady-rounds:3}") int steadyRounds,
+                  @Value("${warm-up.tolerance:0.1}") double tolerance,
+                  @Value("${warm-up.timeout-seconds:60}") long timeoutSeconds) {
+        this.eventService = eventService;
+        this.statisticService = statisticService;
+        this.statsClient = statsClient.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.threads = threads;
+        this.roundCalls = roundCalls;
+        this.steadyRounds = steadyRounds;
+        this.tolerance = tolerance;
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warm-up-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LocalDateTime now = LocalDateTime.now();
+        this.statsStart = now.minusDays(1);
+        this.statsEnd = now;
+        this.filters = List.of(CombineEventFilters.builder().build(),
+                CombineEventFilters.builder().paid(true).onlyAvailable(true).build(),
+                CombineEventFilters.builder().rangeStart(now).rangeEnd(now.plusMonths(1)).build(),
+                CombineEventFilters.builder().text("warm").build());
+        this.sample = Event.builder()
+                .id(0L)
+                .title("warm-up")
+                .annotation("warm-up")
+                .description("warm-up")
+                .eventDate(now)
+                .created(now)
+                .published(now)
+                .paid(false)
+                .participantLimit(0)
+                .requestModeration(false)
+                .owner(new User(0L, "warm-up", "warm-up@localhost"))
+                .category(new Category(0L, "warm-up", 0))
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        coordinator.execute(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public double getFirstRoundMillis() {
+        return firstRoundMillis;
+    }
+
+    public double getLastRoundMillis() {
+        return lastRoundMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    private void run() {
+        long started = System.nanoTime();
+        int steady = 0;
+        try {
+            while ((steady < steadyRounds) && (System.nanoTime() - started < timeoutNanos)) {
+                double median = round();
+                if ((rounds > 0) && (Math.abs(median - lastRoundMillis) <= tolerance * lastRoundMillis)) {
+                    steady++;
+                } else {
+                    steady = 0;
+                }
+                if (rounds == 0) {
+                    firstRoundMillis = median;
+                }
+                lastRoundMillis = median;
+                rounds++;
+            }
+            if (steady < steadyRounds) {
+                log.warn("Warm-up timed out before calls got steady");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.warn("Warm-up stopped by a failed call", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        finished = true;
+        log.info("Warm-up finished after {} rounds in {} ms: median call {} ms in the first round, {} ms in the last",
+                rounds, durationMillis, String.format("%.2f", firstRoundMillis), String.format("%.2f", lastRoundMillis));
+    }
+
+    /**
+     * Makes round-calls calls on every worker and returns the median call time in milliseconds.
+     */
+    private double round() throws InterruptedException, ExecutionException {
+        List<Callable<long[]>> tasks = new ArrayList<>(threads);
+        for (int worker = 0; worker < threads; worker++) {
+            int offset = worker * roundCalls;
+            tasks.add(() -> {
+                long[] nanos = new long[roundCalls];
+                for (int call = 0; call < roundCalls; call++) {
+                    long start = System.nanoTime();
+                    call(rounds * roundCalls * threads + offset + call);
+                    nanos[call] = System.nanoTime() - start;
+                }
+                return nanos;
+            });
+        }
+        long[] nanos = new long[0];
+        for (Future<long[]> done : workers.invokeAll(tasks)) {
+            long[] worker = done.get();
+            int from = nanos.length;
+            nanos = Arrays.copyOf(nanos, from + worker.length);
+            System.arraycopy(worker, 0, nanos, from, worker.length);
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1_000_000.0;
+    }
+
+    private void call(int number) throws JsonProcessingException {
+        if (statsClient != null) {
+            statsClient.getStatistics(statsStart, statsEnd, SAMPLE_URIS, false);
+        }
+        List<EventShortDto> page = eventService.findShortEvents(filters.get(number % filters.size()),
+                SORTS[number % SORTS.length], 0, 10);
+        objectMapper.writeValueAsBytes(page);
+        if (page.isEmpty()) {
+            objectMapper.writeValueAsBytes(EventMapper.toEventFullDto(sample));
+            statisticService.getEventViewCount(Set.of(sample.getId()));
+            return;
+        }
+        long eventId = page.get(number % page.size()).getId();
+        objectMapper.writeValueAsBytes(eventService.findEventById(eventId));
+        eventService.findEventJson(eventId, eventService.getETag(eventId));
+        statisticService.getEventViewCount(page.stream().map(EventShortDto::getId).collect(Collectors.toSet()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package ru.practicum.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports "warmUp" out of service until {@link WarmUp} has finished; the readiness group includes it.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpHealthIndicator implements HealthIndicator {
+    private final WarmUp warmUp;
+
+    @Override
+    public Health health() {
+        Health.Builder health = warmUp.isFinished() ? Health.up() : Health.outOfService();
+        return health
+                .withDetail("rounds", warmUp.getRounds())
+                .withDetail("firstRoundMillis", warmUp.getFirstRoundMillis())
+                .withDetail("lastRoundMillis", warmUp.getLastRoundMillis())
+                .withDetail("durationMillis", warmUp.getDurationMillis())
+                .build();
+    }
+}
\ No newline at end of file
@@ -1,16 +1,17 @@
-DROP TABLE IF EXISTS users, categories, events, requests, compilations, events_compilations, subscriptions;
-
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(75) NOT NULL,
-  email VARCHAR(50) NOT NULL UNIQUE,
-  CONSTRAINT pk_users PRIMARY KEY(id)
+  email VARCHAR(50) NOT NULL,
+  CONSTRAINT pk_users PRIMARY KEY(id),
+  CONSTRAINT users_email_key UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS categories (
 	id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-	name VARCHAR(75) NOT NULL UNIQUE,
-	CONSTRAINT pk_categories PRIMARY KEY(id)
+	name VARCHAR(75) NOT NULL,
+	version BIGINT NOT NULL DEFAULT 0,
+	CONSTRAINT pk_categories PRIMARY KEY(id),
+	CONSTRAINT categories_name_key UNIQUE (name)
 );
 
 CREATE TABLE IF NOT EXISTS events (
@@ -29,26 +30,32 @@ CREATE TABLE IF NOT EXISTS events (
 	owner_id BIGINT NOT NULL,
 	category_id BIGINT NOT NULL,
 	state VARCHAR(20) NOT NULL,
+	version BIGINT NOT NULL DEFAULT 0,
 	CONSTRAINT pk_events PRIMARY KEY(id),
-	FOREIGN KEY(category_id) REFERENCES categories(id),
-	FOREIGN KEY(owner_id) REFERENCES users(id)
+	CONSTRAINT events_category_id_fkey FOREIGN KEY(category_id) REFERENCES categories(id),
+	CONSTRAINT events_owner_id_fkey FOREIGN KEY(owner_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events(state, event_date);
+
 CREATE TABLE IF NOT EXISTS requests (
 	id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-	user_id BIGINT NOT NULL UNIQUE,
-	event_id BIGINT NOT NULL UNIQUE,
+	user_id BIGINT NOT NULL,
+	event_id BIGINT NOT NULL,
 	created TIMESTAMP NOT NULL,
 	status VARCHAR(20) NOT NULL,
 	CONSTRAINT pk_requests PRIMARY KEY(id),
-	FOREIGN KEY(user_id) REFERENCES users(id),
-	FOREIGN KEY(event_id) REFERENCES events(id)
+	CONSTRAINT requests_user_id_key UNIQUE (user_id),
+	CONSTRAINT requests_event_id_key UNIQUE (event_id),
+	CONSTRAINT requests_user_id_fkey FOREIGN KEY(user_id) REFERENCES users(id),
+	CONSTRAINT requests_event_id_fkey FOREIGN KEY(event_id) REFERENCES events(id)
 );
 
 CREATE TABLE IF NOT EXISTS compilations (
 	id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
 	title VARCHAR(250) NOT NULL,
 	pinned BOOLEAN,
+	version BIGINT NOT NULL DEFAULT 0,
 	CONSTRAINT pk_compilations PRIMARY KEY(id)
 );
 
@@ -58,15 +65,17 @@ CREATE TABLE IF NOT EXISTS events_compilations (
 	comp_id BIGINT NOT NULL,
 	CONSTRAINT pk_events_compilations PRIMARY KEY(id),
 	CONSTRAINT uk_events_compilations UNIQUE (event_id, comp_id),
-	FOREIGN KEY(event_id) REFERENCES events(id),
-	FOREIGN KEY(comp_id) REFERENCES compilations(id) ON DELETE CASCADE
+	CONSTRAINT events_compilations_event_id_fkey FOREIGN KEY(event_id) REFERENCES events(id),
+	CONSTRAINT events_compilations_comp_id_fkey FOREIGN KEY(comp_id) REFERENCES compilations(id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS subscriptions (
 	id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-	user_id BIGINT NOT NULL UNIQUE,
-	friend_id BIGINT NOT NULL UNIQUE,
+	user_id BIGINT NOT NULL,
+	friend_id BIGINT NOT NULL,
 	CONSTRAINT pk_subscriptions PRIMARY KEY(id),
-	FOREIGN KEY(user_id) REFERENCES users(id),
-	FOREIGN KEY(friend_id) REFERENCES users(id)
+	CONSTRAINT subscriptions_user_id_key UNIQUE (user_id),
+	CONSTRAINT subscriptions_friend_id_key UNIQUE (friend_id),
+	CONSTRAINT subscriptions_user_id_fkey FOREIGN KEY(user_id) REFERENCES users(id),
+	CONSTRAINT subscriptions_friend_id_fkey FOREIGN KEY(friend_id) REFERENCES users(id)
 );
\ No newline at end of file
@@ -0,0 +1,15 @@
+CREATE INDEX IF NOT EXISTS idx_events_event_date ON events(event_date);
+
+CREATE INDEX IF NOT EXISTS idx_events_category_event_date ON events(category_id, event_date);
+
+CREATE INDEX IF NOT EXISTS idx_events_owner ON events(owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON requests(event_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_requests_user ON requests(user_id);
+
+CREATE INDEX IF NOT EXISTS idx_subscriptions_user ON subscriptions(user_id);
+
+CREATE INDEX IF NOT EXISTS idx_subscriptions_friend ON subscriptions(friend_id);
+
+CREATE INDEX IF NOT EXISTS idx_events_compilations_comp ON events_compilations(comp_id);
\ No newline at end of file
@@ -0,0 +1,29 @@
+-- H2 lets a foreign key take over the index of the unique constraint on its column, so dropping the constraint
+-- leaves the unique index behind until the foreign key is created again; on PostgreSQL recreating it changes nothing.
+ALTER TABLE requests DROP CONSTRAINT IF EXISTS requests_user_id_fkey;
+
+ALTER TABLE requests DROP CONSTRAINT IF EXISTS requests_event_id_fkey;
+
+ALTER TABLE requests DROP CONSTRAINT IF EXISTS requests_user_id_key;
+
+ALTER TABLE requests DROP CONSTRAINT IF EXISTS requests_event_id_key;
+
+ALTER TABLE requests ADD CONSTRAINT uq_requests_user_event UNIQUE (user_id, event_id);
+
+ALTER TABLE requests ADD CONSTRAINT requests_user_id_fkey FOREIGN KEY(user_id) REFERENCES users(id);
+
+ALTER TABLE requests ADD CONSTRAINT requests_event_id_fkey FOREIGN KEY(event_id) REFERENCES events(id);
+
+ALTER TABLE subscriptions DROP CONSTRAINT IF EXISTS subscriptions_user_id_fkey;
+
+ALTER TABLE subscriptions DROP CONSTRAINT IF EXISTS subscriptions_friend_id_fkey;
+
+ALTER TABLE subscriptions DROP CONSTRAINT IF EXISTS subscriptions_user_id_key;
+
+ALTER TABLE subscriptions DROP CONSTRAINT IF EXISTS subscriptions_friend_id_key;
+
+ALTER TABLE subscriptions ADD CONSTRAINT uq_subscriptions_user_friend UNIQUE (user_id, friend_id);
+
+ALTER TABLE subscriptions ADD CONSTRAINT subscriptions_user_id_fkey FOREIGN KEY(user_id) REFERENCES users(id);
+
+ALTER TABLE subscriptions ADD CONSTRAINT subscriptions_friend_id_fkey FOREIGN KEY(friend_id) REFERENCES users(id);
\ No newline at end of file
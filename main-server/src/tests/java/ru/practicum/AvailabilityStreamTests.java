@@ -0,0 +1,130 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.availability.AvailabilityBroadcaster;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.UserService;
+import ru.practicum.utilities.DateTime;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(classes = MainServerApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "statistics.mode=embedded")
+@DirtiesContext
+@TestPropertySource(locations = "classpath:application.properties",
+        properties = "events.availability.resync-seconds=1")
+public class AvailabilityStreamTests {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private AvailabilityBroadcaster availabilityBroadcaster;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private RequestService requestService;
+
+    @Test
+    public void shouldPushConfirmedRequests() throws Exception {
+        long categoryId = categoryService.create(new CategoryDto(null, "stream category")).getId();
+        long ownerId = userService.create(new UserDto(null, "stream owner", "stream-owner@ya.ru")).getId();
+        long firstGuestId = userService.create(new UserDto(null, "stream guest", "stream-guest@ya.ru")).getId();
+        long secondGuestId = userService.create(new UserDto(null, "stream guest 2", "stream-guest2@ya.ru")).getId();
+        long eventId = eventService.create(ownerId, CreateEventDto.builder()
+                .title("stream event")
+                .annotation("stream annotation")
+                .description("stream description")
+                .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(1)))
+                .location(new Location(0, 0))
+                .category(categoryId)
+                .participantLimit(2)
+                .requestModeration(true)
+                .build()).getId();
+        eventService.publish(eventId);
+
+        BlockingQueue<String> first = open(eventId);
+        BlockingQueue<String> second = open(eventId);
+        expectConfirmed(first, eventId, 0);
+        expectConfirmed(second, eventId, 0);
+        Assertions.assertEquals(2, availabilityBroadcaster.getStreams());
+
+        RequestDto request = requestService.create(firstGuestId, eventId);
+        requestService.confirmRequest(ownerId, eventId, request.getId());
+        expectConfirmed(first, eventId, 1);
+        expectConfirmed(second, eventId, 1);
+
+        RequestDto other = requestService.create(secondGuestId, eventId);
+        requestService.confirmRequest(ownerId, eventId, other.getId());
+        expectConfirmed(first, eventId, 2);
+        requestService.declineRequest(ownerId, eventId, request.getId());
+        expectConfirmed(first, eventId, 1);
+        Assertions.assertEquals(404, httpClient.send(HttpRequest.newBuilder(uri(Long.MAX_VALUE)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private BlockingQueue<String> open(long eventId) {
+        BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        httpClient.sendAsync(HttpRequest.newBuilder(uri(eventId)).build(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenAccept(response -> read(response.body(), frames));
+        return frames;
+    }
+
+    private void read(InputStream body, BlockingQueue<String> frames) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("data:")) {
+                    frames.add(line.substring("data:".length()));
+                }
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A stream opened while the dispatcher pushes may get the current values twice, so earlier frames are skipped.
+     */
+    private void expectConfirmed(BlockingQueue<String> frames, long eventId, long confirmed)
+            throws InterruptedException {
+        String expected = "{\"eventId\":" + eventId + ",\"confirmedRequests\":" + confirmed +
+                ",\"participantLimit\":2}";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String frame = null;
+        while (!expected.equals(frame) && (System.nanoTime() < deadline)) {
+            frame = frames.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        Assertions.assertEquals(expected, frame);
+    }
+
+    private URI uri(long eventId) {
+        return URI.create("http://localhost:" + port + "/events/" + eventId + "/availability/stream");
+    }
+}
\ No newline at end of file
@@ -1,18 +1,37 @@
 package ru.practicum;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.catalogue.CategoryCatalogue;
+import ru.practicum.catalogue.CategoryChangeNotifier;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.models.Category;
+import ru.practicum.repositories.CategoryRepository;
 import ru.practicum.services.CategoryService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @TestPropertySource(locations = "classpath:application.properties")
@@ -33,4 +52,130 @@ public class CategoriesTests {
         Assertions.assertNotNull(category);
         Assertions.assertEquals(category.getId(), dto.getId());
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void shouldChangeETagOnlyWhenCategoriesChange() {
+        CategoryDto dto = categoryService.create(new CategoryDto(null, ""));
+        String eTag = categoryService.getETag();
+        Assertions.assertEquals(eTag, categoryService.getETag());
+
+        categoryService.update(new CategoryDto(dto.getId(), ""));
+        String updated = categoryService.getETag();
+        Assertions.assertNotEquals(eTag, updated);
+
+        categoryService.deleteById(dto.getId());
+        Assertions.assertNotEquals(updated, categoryService.getETag());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void shouldServeCategoriesFromSnapshot() {
+        CategoryDto dto = categoryService.create(new CategoryDto(null, "Snapshot"));
+        categoryService.get(0, 10);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Assertions.assertEquals("Snapshot", categoryService.findById(dto.getId()).getName());
+        Assertions.assertFalse(categoryService.get(0, 1000).isEmpty());
+        categoryService.getETag();
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+
+        categoryService.update(new CategoryDto(dto.getId(), "Snapshot renamed"));
+        Assertions.assertEquals("Snapshot renamed", categoryService.findById(dto.getId()).getName());
+        categoryService.deleteById(dto.getId());
+    }
+
+    @Test
+    public void shouldFindCategoryCreatedInCurrentTransaction() {
+        String eTag = categoryService.getETag();
+        CategoryDto dto = categoryService.create(new CategoryDto(null, "Uncommitted"));
+
+        Assertions.assertEquals("Uncommitted", categoryService.findById(dto.getId()).getName());
+        Assertions.assertEquals(eTag, categoryService.getETag());
+    }
+
+    @Test
+    public void shouldNotReplaceSnapshotWithOlderRefresh() throws InterruptedException {
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        CategoryRepository repository = (CategoryRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{CategoryRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAll") || (args == null) || !(args[0] instanceof Sort)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (reads.incrementAndGet() == 1) {
+                        firstReading.countDown();
+                        releaseFirst.await();
+                        return List.of(new Category(1L, "older", 0));
+                    }
+                    return List.of(new Category(1L, "newer", 1));
+                });
+        CategoryCatalogue catalogue = new CategoryCatalogue(repository, new NoTransactionManager());
+
+        Thread slow = new Thread(catalogue::refresh);
+        slow.start();
+        Assertions.assertTrue(firstReading.await(10, TimeUnit.SECONDS));
+        catalogue.refresh();
+        releaseFirst.countDown();
+        slow.join(10_000);
+
+        Assertions.assertEquals(2, reads.get());
+        Assertions.assertEquals("newer", catalogue.findById(1L).getName());
+    }
+
+    @Test
+    public void shouldRefreshOnlyOnChangesFromOtherNodes() {
+        AtomicInteger refreshes = new AtomicInteger();
+        CategoryCatalogue catalogue = new CategoryCatalogue(null, new NoTransactionManager()) {
+            @Override
+            public void refresh() {
+                refreshes.incrementAndGet();
+            }
+        };
+        CategoryChangeNotifier notifier = new CategoryChangeNotifier(catalogue, new DriverManagerDataSource(),
+                new DataSourceProperties(), 500);
+
+        notifier.onNotifications(null);
+        notifier.onNotifications(new PGNotification[]{notification(notifier.getNodeId())});
+        Assertions.assertEquals(0, refreshes.get());
+
+        notifier.onNotifications(new PGNotification[]{notification(notifier.getNodeId()), notification("other")});
+        Assertions.assertEquals(1, refreshes.get());
+    }
+
+    private static PGNotification notification(String nodeId) {
+        return new PGNotification() {
+            @Override
+            public String getName() {
+                return "category_changes";
+            }
+
+            @Override
+            public int getPID() {
+                return 0;
+            }
+
+            @Override
+            public String getParameter() {
+                return nodeId;
+            }
+        };
+    }
+
+    private static class NoTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
 }
\ No newline at end of file
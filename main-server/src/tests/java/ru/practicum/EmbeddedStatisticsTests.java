@@ -0,0 +1,79 @@
+package ru.practicum;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.EventFullDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.models.Event;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.UserService;
+import ru.practicum.statistics.service.EmbeddedStatisticServiceImpl;
+import ru.practicum.statistics.service.StatisticService;
+import ru.practicum.stats.model.Hit;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.Set;
+
+@Transactional
+@SpringBootTest(classes = MainServerApp.class, properties = "statistics.mode=embedded")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application.properties")
+public class EmbeddedStatisticsTests {
+    private final StatisticService statisticService;
+    private final EventService eventService;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final EntityManager em;
+
+    @Test
+    public void shouldCountViewsWithEmbeddedEngine() {
+        Assertions.assertTrue(statisticService instanceof EmbeddedStatisticServiceImpl);
+        CategoryDto category = categoryService.create(new CategoryDto(null, "Embedded"));
+        UserDto user = userService.create(new UserDto(null, "Embedded", "embedded@yandex.ru"));
+        long viewed = createEvent(user, category).getId();
+        long unseen = createEvent(user, category).getId();
+
+        statisticService.addStatistics(request("/events/" + viewed, "10.42.0.1"));
+        statisticService.addStatistics(request("/events/" + viewed, "10.42.0.2"));
+
+        Assertions.assertEquals(2, statisticService.getEventViewCount(viewed));
+        Assertions.assertEquals(Map.of(viewed, 2L, unseen, 0L),
+                statisticService.getEventViewCount(Set.of(viewed, unseen)));
+        Assertions.assertEquals(Map.of(Long.MAX_VALUE, 0L), statisticService.getEventViewCount(Set.of(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void shouldMapStatsEngineEntityNextToMainServerOnes() {
+        Assertions.assertNotNull(em.getMetamodel().entity(Hit.class));
+        Assertions.assertNotNull(em.getMetamodel().entity(Event.class));
+    }
+
+    private EventFullDto createEvent(UserDto user, CategoryDto category) {
+        return eventService.create(user.getId(), CreateEventDto.builder()
+                .title("Title")
+                .annotation("Annotation of the embedded event")
+                .description("Description of the embedded event")
+                .eventDate("2030-01-01 17:00:00")
+                .location(new Location(0, 0))
+                .category(category.getId())
+                .requestModeration(true)
+                .build());
+    }
+
+    private static MockHttpServletRequest request(String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
\ No newline at end of file
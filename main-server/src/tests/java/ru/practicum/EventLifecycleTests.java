@@ -0,0 +1,99 @@
+package ru.practicum;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.EventFullDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.lifecycle.EventLifecycleScheduler;
+import ru.practicum.lifecycle.HashedTimingWheel;
+import ru.practicum.models.Event;
+import ru.practicum.models.Request;
+import ru.practicum.repositories.RequestRepository;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.UserService;
+import ru.practicum.states.EventState;
+import ru.practicum.states.RequestState;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional
+@SpringBootTest(classes = MainServerApp.class, properties = "statistics.mode=embedded")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application.properties")
+public class EventLifecycleTests {
+    private final EventService eventService;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final RequestService requestService;
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final EntityManager em;
+
+    @Test
+    public void shouldExpireIdsWhenTheirTickComes() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, 0);
+        wheel.schedule(1, 250);
+        wheel.schedule(2, 5_000);
+        wheel.schedule(3, 250);
+        wheel.schedule(3, 900);
+
+        Assertions.assertEquals(List.of(), wheel.advance(200));
+        Assertions.assertEquals(List.of(1L), wheel.advance(300));
+        Assertions.assertEquals(List.of(3L), wheel.advance(1_000));
+        Assertions.assertEquals(1, wheel.size());
+        Assertions.assertEquals(List.of(2L), wheel.advance(60_000));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void shouldRejectEmptyHorizon() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new EventLifecycleScheduler(eventRepository,
+                requestRepository, null, null, 1000, 512, 0));
+    }
+
+    @Test
+    public void shouldFinishPastEventsAndExpirePendingRequests() {
+        CategoryDto category = categoryService.create(new CategoryDto(null, ""));
+        UserDto owner = userService.create(new UserDto(null, "", "ivan@yandex.ru"));
+        UserDto requester = userService.create(new UserDto(null, "ϸ", "petr@yandex.ru"));
+
+        CreateEventDto createEventDto = CreateEventDto.builder()
+                .title("")
+                .annotation("")
+                .description("")
+                .eventDate("2030-01-01 17:00:00")
+                .location(new Location(0, 0))
+                .category(category.getId())
+                .requestModeration(true)
+                .build();
+        EventFullDto eventDto = eventService.create(owner.getId(), createEventDto);
+        eventService.publish(eventDto.getId());
+        RequestDto requestDto = requestService.create(requester.getId(), eventDto.getId());
+
+        LocalDateTime now = LocalDateTime.now();
+        Event event = eventRepository.findById(eventDto.getId()).orElseThrow();
+        event.setEventDate(now.minusMinutes(1));
+        em.flush();
+
+        Assertions.assertEquals(1, eventRepository.finishPublished(List.of(event.getId()), now));
+        Assertions.assertEquals(1, requestRepository.expirePending(List.of(event.getId())));
+        em.clear();
+
+        Assertions.assertEquals(EventState.FINISHED, em.find(Event.class, event.getId()).getState());
+        Assertions.assertEquals(RequestState.EXPIRED, em.find(Request.class, requestDto.getId()).getStatus());
+    }
+}
\ No newline at end of file
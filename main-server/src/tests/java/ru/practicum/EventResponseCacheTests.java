@@ -0,0 +1,82 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.cache.EventResponseCache;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.AdminUpdateEvent;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.UserService;
+import ru.practicum.utilities.DateTime;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@SpringBootTest(classes = MainServerApp.class, properties = "statistics.mode=embedded")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application.properties")
+public class EventResponseCacheTests {
+    private final EventService eventService;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final RequestService requestService;
+    private final EventResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    @Test
+    public void shouldSpliceDynamicFieldsIntoCachedBody() throws Exception {
+        long categoryId = categoryService.create(new CategoryDto(null, "cached category")).getId();
+        long ownerId = userService.create(new UserDto(null, "cached owner", "cached-owner@ya.ru")).getId();
+        long guestId = userService.create(new UserDto(null, "cached guest", "cached-guest@ya.ru")).getId();
+        long eventId = create(ownerId, categoryId, "\"confirmedRequests\":null,\"views\":null");
+        long pendingId = create(ownerId, categoryId, "pending");
+        eventService.publish(eventId);
+
+        assertSameAsDto(eventId);
+        int cached = responseCache.size();
+        Assertions.assertNotNull(responseCache.get(eventId, eventService.getETag(eventId)));
+        assertSameAsDto(pendingId);
+        Assertions.assertEquals(cached, responseCache.size());
+
+        requestService.create(guestId, eventId);
+        String withRequest = assertSameAsDto(eventId);
+        Assertions.assertTrue(withRequest.contains("\"confirmedRequests\":1,"));
+
+        AdminUpdateEvent update = new AdminUpdateEvent();
+        update.setTitle("renamed event");
+        eventService.update(eventId, update);
+        Assertions.assertEquals(cached - 1, responseCache.size());
+        Assertions.assertTrue(assertSameAsDto(eventId).contains("\"title\":\"renamed event\""));
+    }
+
+    private String assertSameAsDto(long eventId) throws Exception {
+        String version = eventService.getETag(eventId);
+        String expected = objectMapper.writeValueAsString(eventService.findEventById(eventId));
+        Assertions.assertEquals(expected,
+                new String(eventService.findEventJson(eventId, version), StandardCharsets.UTF_8));
+        Assertions.assertEquals(expected,
+                new String(eventService.findEventJson(eventId, version), StandardCharsets.UTF_8));
+        return expected;
+    }
+
+    private long create(long ownerId, long categoryId, String description) {
+        return eventService.create(ownerId, CreateEventDto.builder()
+                .title("cached event")
+                .annotation("cached annotation")
+                .description(description)
+                .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(1)))
+                .location(new Location(0, 0))
+                .category(categoryId)
+                .build()).getId();
+    }
+}
\ No newline at end of file
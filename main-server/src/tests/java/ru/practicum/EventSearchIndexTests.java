@@ -0,0 +1,198 @@
+package ru.practicum;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.EventShortDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.models.Event;
+import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.repositories.events.EventShortProjection;
+import ru.practicum.search.CompressedBitmap;
+import ru.practicum.search.EventSearchIndex;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.UserService;
+import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+import ru.practicum.utilities.DateTime;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@SpringBootTest(classes = MainServerApp.class, properties = "statistics.mode=embedded")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application.properties",
+        properties = "events.search-index.enabled=true")
+public class EventSearchIndexTests {
+    private final EventSearchIndex searchIndex;
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final RequestService requestService;
+
+    @Test
+    public void shouldBehaveAsSortedSet() {
+        Random random = new Random(7);
+        CompressedBitmap first = new CompressedBitmap();
+        CompressedBitmap second = new CompressedBitmap();
+        TreeSet<Integer> firstExpected = new TreeSet<>();
+        TreeSet<Integer> secondExpected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int sparse = random.nextInt(1 << 20);
+            int dense = random.nextInt(8_000);
+            first.add(sparse);
+            firstExpected.add(sparse);
+            first.add(dense);
+            firstExpected.add(dense);
+            second.add(dense + 3_000);
+            secondExpected.add(dense + 3_000);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(8_000);
+            first.remove(value);
+            firstExpected.remove(value);
+        }
+
+        Assertions.assertEquals(new ArrayList<>(firstExpected), toList(first));
+        Assertions.assertEquals(firstExpected.size(), first.cardinality());
+        Assertions.assertTrue(first.contains(firstExpected.last()));
+        TreeSet<Integer> and = new TreeSet<>(firstExpected);
+        and.retainAll(secondExpected);
+        Assertions.assertEquals(new ArrayList<>(and), toList(first.and(second)));
+        TreeSet<Integer> or = new TreeSet<>(firstExpected);
+        or.addAll(secondExpected);
+        Assertions.assertEquals(new ArrayList<>(or), toList(first.or(second)));
+        TreeSet<Integer> andNot = new TreeSet<>(firstExpected);
+        andNot.removeAll(secondExpected);
+        Assertions.assertEquals(new ArrayList<>(andNot), toList(first.andNot(second)));
+    }
+
+    @Test
+    public void shouldAnswerAsDatabaseAndFollowWrites() throws InterruptedException {
+        long concerts = categoryService.create(new CategoryDto(null, "index concerts")).getId();
+        long lectures = categoryService.create(new CategoryDto(null, "index lectures")).getId();
+        long ownerId = userService.create(new UserDto(null, "index owner", "index-owner@ya.ru")).getId();
+        long guestId = userService.create(new UserDto(null, "index guest", "index-guest@ya.ru")).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            CreateEventDto event = CreateEventDto.builder()
+                    .title("index event " + i)
+                    .annotation("index annotation " + i)
+                    .description("index description " + i)
+                    .eventDate(DateTime.dateTimeToString(start.plusHours(12 - i)))
+                    .location(new Location(0, 0))
+                    .category((i % 3 == 0) ? lectures : concerts)
+                    .paid(i % 2 == 0)
+                    .participantLimit((i % 4 == 0) ? 1 : 0)
+                    .build();
+            eventIds.add(eventService.create(ownerId, event).getId());
+        }
+        for (int i = 0; i < 8; i++) {
+            eventService.publish(eventIds.get(i));
+        }
+        awaitReady();
+
+        List<CombineEventFilters> filters = List.of(
+                CombineEventFilters.builder().categories(new Long[]{concerts}).build(),
+                CombineEventFilters.builder().categories(new Long[]{concerts, lectures}).paid(true).build(),
+                CombineEventFilters.builder().categories(new Long[]{lectures}).onlyAvailable(true).build(),
+                CombineEventFilters.builder().categories(new Long[]{concerts, lectures})
+                        .states(new EventState[]{EventState.PUBLISHED}).build(),
+                CombineEventFilters.builder().categories(new Long[]{concerts})
+                        .rangeStart(start.plusHours(3)).rangeEnd(start.plusHours(9)).build());
+        for (CombineEventFilters filter : filters) {
+            assertSameAsDatabase(filter, 0, 5);
+            assertSameAsDatabase(filter, 5, 5);
+        }
+
+        requestService.create(guestId, eventIds.get(0));
+        CombineEventFilters available = CombineEventFilters.builder()
+                .categories(new Long[]{lectures}).onlyAvailable(true).build();
+        Assertions.assertFalse(searchIds(available, 0, 10).contains(eventIds.get(0)));
+        assertSameAsDatabase(available, 0, 10);
+
+        eventService.declineAll(Set.of(eventIds.get(8), eventIds.get(9)));
+        CombineEventFilters canceled = CombineEventFilters.builder().categories(new Long[]{concerts, lectures})
+                .states(new EventState[]{EventState.CANCELED}).build();
+        Assertions.assertEquals(List.of(eventIds.get(9), eventIds.get(8)), searchIds(canceled, 0, 10));
+    }
+
+    @Test
+    public void shouldLeavePastUnpublishedEventsOutOfUpcomingSearch() throws InterruptedException {
+        long category = categoryService.create(new CategoryDto(null, "index past")).getId();
+        long ownerId = userService.create(new UserDto(null, "index past owner", "index-past@ya.ru")).getId();
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            CreateEventDto event = CreateEventDto.builder()
+                    .title("index past event " + i)
+                    .annotation("index past annotation " + i)
+                    .description("index past description " + i)
+                    .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(1).withNano(0)))
+                    .location(new Location(0, 0))
+                    .category(category)
+                    .build();
+            eventIds.add(eventService.create(ownerId, event).getId());
+        }
+        Event past = eventRepository.findById(eventIds.get(0)).orElseThrow();
+        past.setEventDate(LocalDateTime.now().minusDays(1).withNano(0));
+        eventRepository.save(past);
+        awaitReady();
+        searchIndex.refresh(List.of(past.getId()));
+
+        CombineEventFilters upcoming = CombineEventFilters.builder().categories(new Long[]{category}).build();
+        Assertions.assertEquals(List.of(eventIds.get(1)), searchIds(upcoming, 0, 10));
+        assertSameAsDatabase(upcoming, 0, 10);
+        CombineEventFilters all = CombineEventFilters.builder().categories(new Long[]{category})
+                .rangeStart(LocalDateTime.now().minusDays(2)).build();
+        Assertions.assertEquals(List.of(eventIds.get(0), eventIds.get(1)), searchIds(all, 0, 10));
+    }
+
+    private void assertSameAsDatabase(CombineEventFilters filter, int offset, int size) {
+        List<Long> expected = eventRepository.shortSearchByFilters(filter, EventSortBy.EVENT_DATE,
+                        PageRequest.of(offset / size, size)).stream()
+                .map(EventShortProjection::getId)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(expected, searchIds(filter, offset, size));
+    }
+
+    private List<Long> searchIds(CombineEventFilters filter, int offset, int size) {
+        return searchIndex.search(filter, EventSortBy.EVENT_DATE, offset, size).orElseThrow().stream()
+                .map(EventShortDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void awaitReady() throws InterruptedException {
+        for (int i = 0; (i < 100) && !searchIndex.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertTrue(searchIndex.isReady());
+    }
+
+    private static List<Integer> toList(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        while (iterator.hasNext()) {
+            values.add(iterator.nextInt());
+        }
+        return values;
+    }
+}
\ No newline at end of file
@@ -1,25 +1,40 @@
 package ru.practicum;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.dto.UserDto;
 import ru.practicum.dto.events.*;
+import ru.practicum.mappers.EventMapper;
 import ru.practicum.models.Event;
+import ru.practicum.repositories.SubscriptionRepository;
 import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventRepository;
 import ru.practicum.services.CategoryService;
 import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.SubscriptionService;
 import ru.practicum.services.UserService;
+import ru.practicum.utilities.DateTime;
 import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+import ru.practicum.states.ModerationOutcome;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @SpringBootTest(classes = MainServerApp.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -30,6 +45,10 @@ public class EventsTests {
     private final EventService eventService;
     private final CategoryService categoryService;
     private final EntityManager em;
+    private final EventRepository eventRepository;
+    private final RequestService requestService;
+    private final SubscriptionService subscriptionService;
+    private final SubscriptionRepository subscriptionRepository;
 
     @Test
     public void shouldCreateAndGetEvent() {
@@ -91,7 +110,7 @@ public class EventsTests {
                 .title(" ")
                 .annotation("  ")
                 .description("   ")
-                .eventDate("2022-10-30 17:00:00")
+                .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(10).withNano(0)))
                 .location(new Location(0, 0))
                 .category(catDto.getId())
                 .build();
@@ -101,4 +120,149 @@ public class EventsTests {
         List<EventShortDto> list = eventService.findShortEvents(combinedFilters, EventSortBy.EVENT_DATE, 0, 10);
         Assertions.assertEquals(1, list.size());
     }
+
+    @Test
+    public void shouldReuseQueryPlanForAnyNumberOfIds() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getQueryPlanCacheMissCount();
+        searchByUsers(64);
+        long misses = statistics.getQueryPlanCacheMissCount();
+        Assertions.assertTrue(misses - before <= 8);
+
+        searchByUsers(64);
+        Assertions.assertEquals(misses, statistics.getQueryPlanCacheMissCount());
+    }
+
+    @Test
+    public void shouldFetchOwnersAndCategoriesInOneStatementPerPage() {
+        UserDto friend = userService.create(new UserDto(null, "", "friend@ya.ru"));
+        UserDto follower = userService.create(new UserDto(null, "", "follower@ya.ru"));
+        subscriptionService.create(follower.getId(), friend.getId());
+        String eventDate = DateTime.dateTimeToString(LocalDateTime.now().plusDays(10).withNano(0));
+        Long[] owners = new Long[3];
+        for (int i = 0; i < owners.length; i++) {
+            CategoryDto catDto = categoryService.create(new CategoryDto(null, "Fetch " + i));
+            owners[i] = userService.create(new UserDto(null, "Owner " + i, "owner" + i + "@ya.ru")).getId();
+            CreateEventDto eventDto = CreateEventDto.builder()
+                    .title("Fetch")
+                    .annotation("Fetch plan")
+                    .description("Fetch plan description")
+                    .eventDate(eventDate)
+                    .location(new Location(0, 0))
+                    .category(catDto.getId())
+                    .requestModeration(false)
+                    .build();
+            long eventId = eventService.create(owners[i], eventDto).getId();
+            eventService.publish(eventId);
+            requestService.create(friend.getId(), eventId);
+        }
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        CombineEventFilters filter = CombineEventFilters.builder().users(owners).build();
+
+        Assertions.assertEquals(3, countStatements(statistics, () -> toShortDtos(eventRepository
+                .extendedSearchByFilters(filter, EventSortBy.EVENT_DATE, PageRequest.of(0, 10)))));
+        Assertions.assertEquals(3, countStatements(statistics, () -> eventRepository.shortSearchByFilters(filter,
+                EventSortBy.EVENT_DATE, PageRequest.of(0, 10)).stream()
+                .map(EventMapper::toEventShortDto)
+                .collect(Collectors.toList())));
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(1, countStatements(statistics, () -> eventRepository.findShortEventsByOwnerId(
+                owners[0], PageRequest.of(0, 10)).stream()
+                .map(EventMapper::toEventShortDto)
+                .collect(Collectors.toList())));
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(3, countStatements(statistics, () -> subscriptionRepository.findEventsByUserId(
+                follower.getId()).stream()
+                .map(EventMapper::toEventShortDto)
+                .collect(Collectors.toList())));
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private int countStatements(Statistics statistics, Supplier<List<EventShortDto>> page) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        List<EventShortDto> events = page.get();
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        return events.size();
+    }
+
+    private List<EventShortDto> toShortDtos(List<Event> events) {
+        return events.stream()
+                .map(EventMapper::toEventShortDto)
+                .collect(Collectors.toList());
+    }
+
+    private void searchByUsers(int maxSize) {
+        for (int size = 1; size <= maxSize; size++) {
+            Long[] users = new Long[size];
+            for (int i = 0; i < size; i++) {
+                users[i] = (long) i + 1;
+            }
+            CombineEventFilters filter = CombineEventFilters.builder()
+                    .users(users)
+                    .states(new EventState[]{EventState.PUBLISHED, EventState.PENDING})
+                    .build();
+            eventRepository.extendedSearchByFilters(filter, EventSortBy.EVENT_DATE, PageRequest.of(0, 10));
+        }
+    }
+
+    @Test
+    public void shouldPublishAndDeclineEventsInBulk() {
+        CategoryDto catDto = categoryService.create(new CategoryDto(null, "Bulk moderation"));
+        UserDto userDto = userService.create(new UserDto(null, "Moderated", "moderated@ya.ru"));
+        String eventDate = DateTime.dateTimeToString(LocalDateTime.now().plusDays(10).withNano(0));
+        CreateEventDto eventDto = CreateEventDto.builder()
+                .title("Bulk")
+                .annotation("Bulk moderation")
+                .description("Bulk moderation description")
+                .eventDate(eventDate)
+                .location(new Location(0, 0))
+                .category(catDto.getId())
+                .build();
+
+        long first = eventService.create(userDto.getId(), eventDto).getId();
+        long second = eventService.create(userDto.getId(), eventDto).getId();
+        List<EventModerationResult> published = eventService.publishAll(Set.of(first, Long.MAX_VALUE));
+        Assertions.assertEquals(List.of(new EventModerationResult(first, ModerationOutcome.PUBLISHED),
+                new EventModerationResult(Long.MAX_VALUE, ModerationOutcome.NOT_FOUND)), published);
+
+        List<EventModerationResult> declined = eventService.declineAll(Set.of(first, second));
+        Assertions.assertEquals(List.of(new EventModerationResult(first, ModerationOutcome.ALREADY_PUBLISHED),
+                new EventModerationResult(second, ModerationOutcome.REJECTED)), declined);
+        em.clear();
+        Assertions.assertEquals(EventState.PUBLISHED, em.find(Event.class, first).getState());
+        Assertions.assertEquals(EventState.CANCELED, em.find(Event.class, second).getState());
+
+        Assertions.assertEquals(List.of(new EventModerationResult(first, ModerationOutcome.ALREADY_PUBLISHED),
+                new EventModerationResult(second, ModerationOutcome.NOT_PENDING)),
+                eventService.publishAll(Set.of(first, second)));
+        Assertions.assertEquals(List.of(new EventModerationResult(second, ModerationOutcome.NOT_PENDING)),
+                eventService.declineAll(Set.of(second)));
+    }
+
+    @Test
+    public void shouldKeepVersionBumpsMadeAfterTheEventWasLoaded() {
+        CategoryDto catDto = categoryService.create(new CategoryDto(null, "Versioned"));
+        UserDto userDto = userService.create(new UserDto(null, "Versioned", "versioned@ya.ru"));
+        CreateEventDto eventDto = CreateEventDto.builder()
+                .title("Versioned")
+                .annotation("Versioned annotation")
+                .description("Versioned description")
+                .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(10).withNano(0)))
+                .location(new Location(0, 0))
+                .category(catDto.getId())
+                .build();
+        long eventId = eventService.create(userDto.getId(), eventDto).getId();
+        em.flush();
+        em.clear();
+        long version = eventRepository.findById(eventId).orElseThrow().getVersion();
+
+        eventRepository.incrementVersion(eventId);
+        eventService.removeUserEvent(userDto.getId(), eventId);
+        em.flush();
+        em.clear();
+
+        Assertions.assertEquals(version + 2, eventRepository.findById(eventId).orElseThrow().getVersion());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package ru.practicum;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.repositories.CompilationRepository;
+import ru.practicum.repositories.EventsCompilationRepository;
+import ru.practicum.repositories.RequestRepository;
+import ru.practicum.repositories.SubscriptionRepository;
+import ru.practicum.repositories.UserRepository;
+import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+import ru.practicum.stats.repository.StatisticRepository;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Type;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs repository queries against a database built by the db/migration scripts and fails when H2 plans any table
+ * of them without an index condition. Free text search and unfiltered admin listings read whole tables by design
+ * and are not checked.
+ */
+@SpringBootTest(classes = MainServerApp.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "schema.migrations.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.QueryPlanTests$CapturingInspector"})
+public class QueryPlanTests {
+    private static final Pattern SCAN = Pattern.compile("/\\* PUBLIC\\.[^:*]*\\*/");
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final CompilationRepository compilationRepository;
+    private final EventsCompilationRepository eventsCompilationRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationContext context;
+
+    @BeforeAll
+    public void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)", i, "user " + i,
+                    "plan" + i + "@ya.ru");
+            jdbcTemplate.update("insert into categories (id, name) values (?, ?)", i, "plan category " + i);
+        }
+        for (int i = 1; i <= 200; i++) {
+            jdbcTemplate.update("insert into events (id, title, annotation, description, event_date, created, " +
+                            "lat, lon, paid, owner_id, category_id, state) values (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?)",
+                    i, "event " + i, "annotation " + i, "description " + i,
+                    Timestamp.valueOf(LocalDateTime.now().plusHours(i)), now, i % 2 == 0, 1 + i % 20, 1 + i % 20,
+                    EventState.values()[i % EventState.values().length].name());
+            jdbcTemplate.update("insert into requests (id, user_id, event_id, created, status) " +
+                    "values (?, ?, ?, ?, ?)", i, 1 + i % 20, i, now, (i % 2 == 0) ? "CONFIRMED" : "PENDING");
+        }
+        for (int i = 1; i <= 10; i++) {
+            jdbcTemplate.update("insert into subscriptions (id, user_id, friend_id) values (?, ?, ?)", i, i, i + 1);
+            jdbcTemplate.update("insert into compilations (id, title, pinned) values (?, ?, ?)", i,
+                    "compilation " + i, i % 2 == 0);
+            jdbcTemplate.update("insert into events_compilations (id, event_id, comp_id) values (?, ?, ?)", i, i, i);
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    public void shouldUseIndexesForEventQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = List.of(1L, 2L, 3L);
+        assertIndexed(() -> eventRepository.findShortEventsByOwnerId(1, PageRequest.of(0, 10)));
+        assertIndexed(() -> eventRepository.findVersion(1));
+        assertIndexed(() -> eventRepository.findModerationStatesForUpdate(ids));
+        assertIndexed(() -> eventRepository.findIndexRows(ids));
+        assertIndexed(() -> eventRepository.findIndexRowsAfter(100, PageRequest.of(0, 10)));
+        assertIndexed(() -> eventRepository.findPublishedBefore(now.plusHours(1)));
+        assertIndexed(() -> eventRepository.finishPublished(ids, now));
+        assertIndexed(() -> eventRepository.finishAllPublished(now));
+        assertIndexed(() -> eventRepository.publishPending(ids, now, now));
+        assertIndexed(() -> eventRepository.cancelPending(ids));
+        assertIndexed(() -> eventRepository.shortSearchByFilters(CombineEventFilters.builder()
+                .categories(new Long[]{1L, 2L}).paid(true).onlyAvailable(true).build(), EventSortBy.EVENT_DATE,
+                PageRequest.of(0, 10)));
+        assertIndexed(() -> eventRepository.shortSearchByFilters(CombineEventFilters.builder()
+                .rangeStart(now).rangeEnd(now.plusDays(1)).build(), EventSortBy.EVENT_DATE, PageRequest.of(0, 10)));
+        assertIndexed(() -> eventRepository.extendedSearchByFilters(CombineEventFilters.builder()
+                .users(new Long[]{1L}).states(new EventState[]{EventState.PENDING}).build(), EventSortBy.EVENT_DATE,
+                PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void shouldUseIndexesForRequestQueries() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        assertIndexed(() -> requestRepository.findByUserId(1L));
+        assertIndexed(() -> requestRepository.findByEventId(1L));
+        assertIndexed(() -> requestRepository.existsByUserIdAndEventId(1L, 1L));
+        assertIndexed(() -> requestRepository.countApprovedRequests(1L));
+        assertIndexed(() -> requestRepository.countApprovedRequests(ids));
+        assertIndexed(() -> requestRepository.countApprovedRequestsBetween(0, 100));
+        assertIndexed(() -> requestRepository.setRejectedStatusToPendingRequests(1L));
+        assertIndexed(() -> requestRepository.expirePending(ids));
+    }
+
+    @Test
+    public void shouldAllowOneRequestAndSubscriptionPerPair() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String insertRequest = "insert into requests (id, user_id, event_id, created, status) " +
+                "values (?, ?, ?, ?, ?)";
+        String insertSubscription = "insert into subscriptions (id, user_id, friend_id) values (?, ?, ?)";
+
+        jdbcTemplate.update(insertRequest, 1001, 1, 2, now, "PENDING");
+        jdbcTemplate.update(insertRequest, 1002, 2, 2, now, "PENDING");
+        Assertions.assertThrows(DuplicateKeyException.class,
+                () -> jdbcTemplate.update(insertRequest, 1003, 1, 2, now, "PENDING"));
+        jdbcTemplate.update(insertSubscription, 1001, 1, 3);
+        jdbcTemplate.update(insertSubscription, 1002, 4, 3);
+        Assertions.assertThrows(DuplicateKeyException.class,
+                () -> jdbcTemplate.update(insertSubscription, 1003, 1, 3));
+    }
+
+    @Test
+    public void shouldMapOnlyMainServerEntitiesWithoutEmbeddedStatistics() {
+        Assertions.assertTrue(entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(Type::getJavaType)
+                .allMatch(type -> type.getPackageName().equals("ru.practicum.models")));
+        Assertions.assertTrue(context.getBeansOfType(StatisticRepository.class).isEmpty());
+    }
+
+    @Test
+    public void shouldUseIndexesForSubscriptionAndCompilationQueries() {
+        assertIndexed(() -> subscriptionRepository.findByUserId(1));
+        assertIndexed(() -> subscriptionRepository.existsByUserIdAndFriendId(1, 2));
+        assertIndexed(() -> subscriptionRepository.findEventsByUserId(1L));
+        assertIndexed(() -> eventsCompilationRepository.findByCompIdAndEventId(1L, 1L));
+        assertIndexed(() -> compilationRepository.findById(1L).orElseThrow().getCompilationEvents().size());
+        assertIndexed(() -> userRepository.findByIds(new Long[]{1L, 2L}, PageRequest.of(0, 10)));
+    }
+
+    private void assertIndexed(Runnable call) {
+        STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        });
+        Assertions.assertFalse(STATEMENTS.isEmpty());
+        for (String sql : new ArrayList<>(STATEMENTS)) {
+            String plan = explain(sql);
+            Matcher scan = SCAN.matcher(plan);
+            Assertions.assertFalse(scan.find(), () -> "Scan " + scan.group() + " in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package ru.practicum;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.ratelimit.TokenBucketTable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(classes = MainServerApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "statistics.mode=embedded")
+@DirtiesContext
+@TestPropertySource(locations = "classpath:application.properties", properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.routes.event.pattern=/events/*",
+        "rate-limit.routes.event.permits-per-second=0.5",
+        "rate-limit.routes.event.burst=2"})
+public class RateLimitTests {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void shouldRefillBucketsAndEvictFullOnes() {
+        TokenBucketTable table = new TokenBucketTable(2, 3, 2);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, table.tryAcquire("first", now));
+        }
+        Assertions.assertEquals(SECOND / 2, table.tryAcquire("first", now));
+        Assertions.assertEquals(0, table.tryAcquire("first", now + SECOND / 2));
+        Assertions.assertEquals(0, table.tryAcquire("second", now));
+
+        Assertions.assertEquals(0, table.tryAcquire("third", now));
+        Assertions.assertEquals(2, table.size());
+        table.evictIdle(now + SECOND);
+        Assertions.assertEquals(1, table.size());
+        table.evictIdle(now + 2 * SECOND);
+        Assertions.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void shouldAnswerTooManyRequests() throws Exception {
+        Assertions.assertEquals(404, get("/events/" + Long.MAX_VALUE).statusCode());
+        Assertions.assertEquals(404, get("/events/" + Long.MAX_VALUE).statusCode());
+        HttpResponse<String> rejected = get("/events/" + Long.MAX_VALUE);
+        Assertions.assertEquals(429, rejected.statusCode());
+        Assertions.assertEquals("2", rejected.headers().firstValue("Retry-After").orElseThrow());
+        Assertions.assertEquals(200, get("/categories").statusCode());
+        Assertions.assertEquals(1, meterRegistry.get("http.rate-limit.rejected").tag("route", "event")
+                .functionCounter().count());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.datasource.ReplicaLagMonitor;
+import ru.practicum.dto.UserDto;
+import ru.practicum.services.UserService;
+
+import java.util.List;
+
+@SpringBootTest(classes = MainServerApp.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "stats-server.url=http://localhost:9090",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].url=" + ReplicaRoutingTests.REPLICA_URL,
+        "datasource.routing.lag-query=select coalesce(max(lag_seconds), 0) from replica_lag",
+        "datasource.routing.max-lag-seconds=5",
+        "datasource.routing.lag-check-interval-ms=3600000"
+})
+@TestPropertySource(locations = "classpath:application.properties")
+public class ReplicaRoutingTests {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate primary = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "test", "test"));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "test", "test"));
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    public void copySchemaToReplica() {
+        replica.execute("drop all objects");
+        primary.queryForList("script nodata", String.class).stream()
+                .filter(sql -> !sql.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        replica.execute("create table replica_lag(lag_seconds double)");
+        replicaLagMonitor.checkLag();
+    }
+
+    @Test
+    public void shouldWriteToPrimaryAndReadFromReplica() {
+        UserDto user = userService.create(new UserDto(null, "", "anna@yandex.ru"));
+
+        Assertions.assertEquals(1, primary.queryForObject("select count(*) from users where id = ?", Long.class,
+                user.getId()));
+        Assertions.assertTrue(userService.find(new Long[]{user.getId()}, 0, 10).isEmpty());
+
+        replica.update("insert into users(id, name, email) values (?, ?, ?)", user.getId(), user.getName(),
+                user.getEmail());
+        List<UserDto> users = userService.find(new Long[]{user.getId()}, 0, 10);
+        Assertions.assertEquals(1, users.size());
+        Assertions.assertEquals(user.getEmail(), users.get(0).getEmail());
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryWhenReplicaLags() {
+        UserDto user = userService.create(new UserDto(null, "", "boris@yandex.ru"));
+        replica.update("insert into replica_lag values (60)");
+        replicaLagMonitor.checkLag();
+
+        List<UserDto> users = userService.find(new Long[]{user.getId()}, 0, 10);
+        Assertions.assertEquals(1, users.size());
+    }
+}
\ No newline at end of file
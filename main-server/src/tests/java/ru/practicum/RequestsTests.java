@@ -9,6 +9,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.dto.RequestDto;
+import ru.practicum.dto.RequestStatusUpdateRequest;
+import ru.practicum.dto.RequestStatusUpdateResult;
 import ru.practicum.dto.UserDto;
 import ru.practicum.dto.events.CreateEventDto;
 import ru.practicum.dto.events.EventFullDto;
@@ -18,9 +20,12 @@ import ru.practicum.services.CategoryService;
 import ru.practicum.services.EventService;
 import ru.practicum.services.RequestService;
 import ru.practicum.services.UserService;
+import ru.practicum.states.RequestState;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Transactional
 @SpringBootTest(classes = MainServerApp.class)
@@ -65,4 +70,75 @@ public class RequestsTests {
         Assertions.assertNotNull(request);
         Assertions.assertEquals(request.getId(), requestDto.getId());
     }
+
+    @Test
+    public void shouldConfirmRequestsInBulkUpToParticipantLimit() {
+        CategoryDto dto = categoryService.create(new CategoryDto(null, ""));
+        UserDto owner = userService.create(new UserDto(null, "", "olga@yandex.ru"));
+
+        CreateEventDto createEventDto = CreateEventDto.builder()
+                .title("")
+                .annotation("")
+                .description("")
+                .eventDate("2030-01-01 17:00:00")
+                .location(new Location(0, 0))
+                .category(dto.getId())
+                .participantLimit(2)
+                .requestModeration(true)
+                .build();
+        EventFullDto event = eventService.create(owner.getId(), createEventDto);
+        eventService.publish(event.getId());
+
+        Set<Long> requestIds = new LinkedHashSet<>();
+        for (int i = 0; i < 3; i++) {
+            UserDto requester = userService.create(new UserDto(null, "" + i, "member" + i + "@yandex.ru"));
+            requestIds.add(requestService.create(requester.getId(), event.getId()).getId());
+        }
+
+        RequestStatusUpdateResult result = requestService.updateRequestsStatus(owner.getId(), event.getId(),
+                new RequestStatusUpdateRequest(requestIds, RequestState.CONFIRMED));
+
+        Assertions.assertEquals(2, result.getConfirmedRequests().size());
+        Assertions.assertEquals(1, result.getRejectedRequests().size());
+        em.clear();
+        Assertions.assertEquals(2, em.createQuery("select count(r) from Request r where r.eventId = :eventId " +
+                        "and r.status = :status", Long.class)
+                .setParameter("eventId", event.getId())
+                .setParameter("status", RequestState.CONFIRMED)
+                .getSingleResult());
+    }
+
+    @Test
+    public void shouldRejectWholeBatchWhenEventIsFull() {
+        CategoryDto dto = categoryService.create(new CategoryDto(null, "Full batch"));
+        UserDto owner = userService.create(new UserDto(null, "Full owner", "full-owner@yandex.ru"));
+
+        CreateEventDto createEventDto = CreateEventDto.builder()
+                .title("Full batch")
+                .annotation("Full batch annotation")
+                .description("Full batch description")
+                .eventDate("2030-01-01 17:00:00")
+                .location(new Location(0, 0))
+                .category(dto.getId())
+                .participantLimit(1)
+                .requestModeration(true)
+                .build();
+        EventFullDto event = eventService.create(owner.getId(), createEventDto);
+        eventService.publish(event.getId());
+
+        UserDto first = userService.create(new UserDto(null, "Full first", "full-first@yandex.ru"));
+        UserDto second = userService.create(new UserDto(null, "Full second", "full-second@yandex.ru"));
+        Long taken = requestService.create(first.getId(), event.getId()).getId();
+        Long waiting = requestService.create(second.getId(), event.getId()).getId();
+        em.find(Request.class, taken).setStatus(RequestState.CONFIRMED);
+        em.flush();
+
+        RequestStatusUpdateResult result = requestService.updateRequestsStatus(owner.getId(), event.getId(),
+                new RequestStatusUpdateRequest(Set.of(waiting), RequestState.CONFIRMED));
+
+        Assertions.assertTrue(result.getConfirmedRequests().isEmpty());
+        Assertions.assertEquals(waiting, result.getRejectedRequests().get(0).getId());
+        em.clear();
+        Assertions.assertEquals(RequestState.REJECTED, em.find(Request.class, waiting).getStatus());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package ru.practicum;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.statistics.service.ViewCountCoalescer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class StatisticsCoalescingTests {
+
+    @Test
+    public void shouldJoinLookupInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Set<Long>> calls = new ArrayList<>();
+        ViewCountCoalescer coalescer = new ViewCountCoalescer(ids -> {
+            calls.add(new HashSet<>(ids));
+            started.countDown();
+            await(release);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> id * 10));
+        }, 0, 100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+
+        CompletableFuture<Map<Long, Long>> first = CompletableFuture.supplyAsync(() -> coalescer.get(Set.of(1L, 2L)));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Map<Long, Long>> second = CompletableFuture.supplyAsync(() -> coalescer.get(Set.of(2L)));
+        while (registry.get("statistics.coalescing.ids").tag("result", "joined").functionCounter().count() < 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        Assertions.assertEquals(Map.of(1L, 10L, 2L, 20L), first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Map.of(2L, 20L), second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(Set.of(1L, 2L)), calls);
+        Assertions.assertEquals(2.0, registry.get("statistics.coalescing.ratio").gauge().value());
+
+        Assertions.assertEquals(Map.of(2L, 20L), coalescer.get(Set.of(2L)));
+        Assertions.assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void shouldBatchNewIdsWithinWindow() throws Exception {
+        List<Set<Long>> calls = new ArrayList<>();
+        ViewCountCoalescer coalescer = new ViewCountCoalescer(ids -> {
+            calls.add(new HashSet<>(ids));
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> 1L));
+        }, 500, 3);
+
+        List<CompletableFuture<Map<Long, Long>>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            long eventId = id;
+            lookups.add(CompletableFuture.supplyAsync(() -> coalescer.get(Set.of(eventId))));
+        }
+        for (CompletableFuture<Map<Long, Long>> lookup : lookups) {
+            Assertions.assertEquals(1L, lookup.get(5, TimeUnit.SECONDS).values().iterator().next());
+        }
+        Assertions.assertEquals(List.of(Set.of(1L, 2L, 3L)), calls);
+    }
+
+    @Test
+    public void shouldFailAllWaitersAndRetryNextTime() {
+        List<Set<Long>> calls = new ArrayList<>();
+        ViewCountCoalescer coalescer = new ViewCountCoalescer(ids -> {
+            calls.add(ids);
+            if (calls.size() == 1) {
+                throw new IllegalStateException("stats-server is down");
+            }
+            return Map.of(7L, 3L);
+        }, 0, 100);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> coalescer.get(Set.of(7L)));
+        Assertions.assertEquals(Map.of(7L, 3L), coalescer.get(Set.of(7L)));
+        Assertions.assertEquals(2, calls.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.practicum.load.StubStatsServer;
+import ru.practicum.statistics.client.ConsistentHashRing;
+import ru.practicum.statistics.client.HttpClientImpl;
+import ru.practicum.statistics.model.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class StatisticsShardingTests {
+
+    @Test
+    public void shouldRouteHitsAndLookupsToOwningNode() throws Exception {
+        try (StubStatsServer first = new StubStatsServer();
+             StubStatsServer second = new StubStatsServer();
+             StubStatsServer third = new StubStatsServer()) {
+            Map<String, StubStatsServer> servers = Map.of(first.getUrl(), first, second.getUrl(), second,
+                    third.getUrl(), third);
+            List<String> urls = List.of(first.getUrl(), second.getUrl(), third.getUrl());
+            ConsistentHashRing ring = new ConsistentHashRing(urls, 160);
+            HttpClientImpl client = new HttpClientImpl(urls, 160, 4, new RestTemplateBuilder()
+                    .messageConverters(new MappingJackson2HttpMessageConverter(new ObjectMapper()
+                            .registerModule(new ParameterNamesModule()))));
+            String[] uris = IntStream.range(0, 60).mapToObj(i -> "/events/" + i).toArray(String[]::new);
+
+            for (int i = 0; i < uris.length; i++) {
+                for (int j = 0; j <= i % 3; j++) {
+                    Assertions.assertEquals(HttpStatus.OK, client.addStatistics(uris[i], "10.0.0." + j));
+                }
+            }
+            for (int i = 0; i < uris.length; i++) {
+                for (Map.Entry<String, StubStatsServer> server : servers.entrySet()) {
+                    long expected = server.getKey().equals(ring.getNode(uris[i])) ? (i % 3) + 1 : 0;
+                    Assertions.assertEquals(expected, server.getValue().getHitCount(uris[i]));
+                }
+            }
+            Assertions.assertEquals(3, ring.groupByNode(uris).size());
+
+            ResponseEntity<List<ViewStats>> response = client.getStatistics(LocalDateTime.now().minusHours(1),
+                    LocalDateTime.now(), uris, false);
+            Map<String, Long> hits = response.getBody().stream()
+                    .collect(Collectors.toMap(ViewStats::getUri, ViewStats::getHits));
+            Assertions.assertEquals(uris.length, hits.size());
+            for (int i = 0; i < uris.length; i++) {
+                Assertions.assertEquals((i % 3) + 1, hits.get(uris[i]));
+            }
+            client.stop();
+        }
+    }
+
+    @Test
+    public void shouldMoveOnlyUrisOwnedByAddedNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("http://a", "http://b", "http://c"), 160);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of("http://a", "http://b", "http://c", "http://d"),
+                160);
+        Map<String, Integer> owned = new HashMap<>();
+        int moved = 0;
+        int keys = 10_000;
+        for (int i = 0; i < keys; i++) {
+            String uri = "/events/" + i;
+            String before = ring.getNode(uri);
+            String after = grown.getNode(uri);
+            owned.merge(before, 1, Integer::sum);
+            if (!before.equals(after)) {
+                Assertions.assertEquals("http://d", after);
+                moved++;
+            }
+        }
+        Assertions.assertTrue((moved > keys * 0.15) && (moved < keys * 0.35), "moved: " + moved);
+        owned.values().forEach(count -> Assertions.assertTrue((count > keys * 0.25) && (count < keys * 0.42),
+                "owned: " + owned));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.load.StubStatsServer;
+import ru.practicum.warmup.WarmUp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(classes = MainServerApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+@TestPropertySource(locations = "classpath:application.properties", properties = {
+        "warm-up.enabled=true",
+        "warm-up.round-calls=5",
+        "warm-up.steady-rounds=1000",
+        "warm-up.timeout-seconds=3",
+        "management.endpoint.health.probes.enabled=true",
+        "management.endpoint.health.group.readiness.include=readinessState,warmUp"})
+public class WarmUpTests {
+    private static StubStatsServer statsServer;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private WarmUp warmUp;
+
+    @DynamicPropertySource
+    static void statsServer(DynamicPropertyRegistry registry) throws IOException {
+        statsServer = new StubStatsServer();
+        registry.add("stats-server.url", statsServer::getUrl);
+    }
+
+    @AfterAll
+    static void stopStatsServer() {
+        statsServer.close();
+    }
+
+    @Test
+    public void shouldKeepReadinessDownUntilWarmedUp() throws Exception {
+        Assertions.assertEquals(503, readiness());
+        Assertions.assertEquals(200, get("/actuator/health/liveness"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!warmUp.isFinished() && (System.nanoTime() < deadline)) {
+            Thread.sleep(100);
+        }
+        Assertions.assertTrue(warmUp.isFinished());
+        Assertions.assertTrue(warmUp.getRounds() > 0);
+        Assertions.assertTrue(warmUp.getDurationMillis() >= TimeUnit.SECONDS.toMillis(3));
+        Assertions.assertEquals(200, readiness());
+        Assertions.assertTrue(statsServer.getLookupCount() >= warmUp.getRounds());
+    }
+
+    private int readiness() throws Exception {
+        return get("/actuator/health/readiness");
+    }
+
+    private int get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
\ No newline at end of file
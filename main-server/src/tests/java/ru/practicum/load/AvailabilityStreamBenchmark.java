@@ -0,0 +1,132 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServerApp;
+import ru.practicum.availability.AvailabilityBroadcaster;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.RequestService;
+import ru.practicum.services.UserService;
+import ru.practicum.utilities.DateTime;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Opens bench.streams idle availability streams on one event, then confirms bench.updates requests one by one and
+ * records the time from the commit until every stream has received the new count. Client and server share the
+ * process, so each stream takes two file descriptors of it.
+ */
+@Slf4j
+public class AvailabilityStreamBenchmark {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int streams = Integer.getInteger("bench.streams", 8_000);
+        int updates = Integer.getInteger("bench.updates", 50);
+
+        try (StubStatsServer statsServer = new StubStatsServer();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                     .run(Stream.concat(Stream.of(LoadTestApp.serverArguments(config, statsServer.getUrl())),
+                                     Stream.of("--server.tomcat.max-connections=" + (streams + 100),
+                                             "--events.availability.resync-seconds=3600"))
+                             .toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            EventService eventService = context.getBean(EventService.class);
+            UserService userService = context.getBean(UserService.class);
+            RequestService requestService = context.getBean(RequestService.class);
+            long categoryId = context.getBean(CategoryService.class)
+                    .create(new CategoryDto(null, "bench category")).getId();
+            long ownerId = userService.create(new UserDto(null, "bench owner", "bench-owner@bench.test")).getId();
+            long eventId = eventService.create(ownerId, CreateEventDto.builder()
+                    .title("bench event")
+                    .annotation("bench annotation")
+                    .description("bench description")
+                    .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(1)))
+                    .location(new Location(0, 0))
+                    .category(categoryId)
+                    .participantLimit(updates + 1)
+                    .build()).getId();
+            eventService.publish(eventId);
+
+            HttpClient httpClient = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + port + "/events/" + eventId + "/availability/stream");
+            AtomicReference<CountDownLatch> received = new AtomicReference<>(new CountDownLatch(streams));
+            long started = System.currentTimeMillis();
+            for (int i = 0; i < streams; i++) {
+                httpClient.sendAsync(HttpRequest.newBuilder(uri).build(),
+                        HttpResponse.BodyHandlers.fromLineSubscriber(new FrameCounter(received)));
+                if (i % 500 == 499) {
+                    Thread.sleep(50);
+                }
+            }
+            if (!received.get().await(120, TimeUnit.SECONDS)) {
+                throw new IllegalStateException(received.get().getCount() + " streams did not open");
+            }
+            AvailabilityBroadcaster broadcaster = context.getBean(AvailabilityBroadcaster.class);
+            System.gc();
+            long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            log.info("Opened {} streams in {} ms", broadcaster.getStreams(), System.currentTimeMillis() - started);
+
+            LatencyRecorder fanOut = new LatencyRecorder();
+            for (int i = 0; i < updates; i++) {
+                long guestId = userService.create(new UserDto(null, "bench guest " + i,
+                        "bench-guest" + i + "@bench.test")).getId();
+                CountDownLatch latch = new CountDownLatch(streams);
+                received.set(latch);
+                long start = System.nanoTime();
+                requestService.create(guestId, eventId);
+                boolean delivered = latch.await(30, TimeUnit.SECONDS);
+                fanOut.record(System.nanoTime() - start, delivered);
+            }
+
+            System.out.printf("%d streams, %d threads, %.1f MB heap after GC%n", broadcaster.getStreams(),
+                    ManagementFactory.getThreadMXBean().getThreadCount(), heap / 1024.0 / 1024.0);
+            System.out.printf("update to last stream: p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d of %d not delivered%n",
+                    fanOut.percentileMillis(50), fanOut.percentileMillis(99), fanOut.percentileMillis(100),
+                    fanOut.getErrors(), updates);
+        }
+    }
+
+    private static class FrameCounter implements Flow.Subscriber<String> {
+        private final AtomicReference<CountDownLatch> received;
+
+        FrameCounter(AtomicReference<CountDownLatch> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("data:")) {
+                received.get().countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package ru.practicum.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationContext;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.CreateCompilationDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.services.*;
+import ru.practicum.utilities.DateTime;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class DatasetSeeder {
+    private static final String[] WORDS = {"concert", "exhibition", "lecture", "festival", "movie", "tour",
+            "workshop", "meetup", "party", "match", "quiz", "theatre"};
+
+    private final ApplicationContext context;
+    private final LoadTestConfig config;
+    private final Random random = new Random(42);
+
+    public Dataset seed() {
+        UserService userService = context.getBean(UserService.class);
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        EventService eventService = context.getBean(EventService.class);
+        RequestService requestService = context.getBean(RequestService.class);
+        SubscriptionService subscriptionService = context.getBean(SubscriptionService.class);
+        CompilationService compilationService = context.getBean(CompilationService.class);
+        Dataset dataset = new Dataset();
+
+        for (int i = 0; i < config.getUsers(); i++) {
+            UserDto user = userService.create(new UserDto(null, "user " + i, "user" + i + "@load.test"));
+            dataset.userIds.add(user.getId());
+        }
+        for (int i = 0; i < config.getCategories(); i++) {
+            CategoryDto category = categoryService.create(new CategoryDto(null, "category " + i));
+            dataset.categoryIds.add(category.getId());
+        }
+        for (Long ownerId : dataset.userIds) {
+            for (int i = 0; i < config.getEventsPerUser(); i++) {
+                long eventId = eventService.create(ownerId, randomEvent(dataset.randomCategory(random))).getId();
+                dataset.eventIds.add(eventId);
+                if (random.nextInt(10) < 8) {
+                    eventService.publish(eventId);
+                    dataset.publishedEventIds.add(eventId);
+                    dataset.eventOwners.add(ownerId);
+                }
+            }
+        }
+        for (int i = 0; i < dataset.publishedEventIds.size(); i++) {
+            long eventId = dataset.publishedEventIds.get(i);
+            long ownerId = dataset.eventOwners.get(i);
+            for (int j = 0; j < config.getRequestsPerEvent(); j++) {
+                long requesterId = dataset.randomUser(random);
+                if (requesterId == ownerId) {
+                    continue;
+                }
+                try {
+                    requestService.create(requesterId, eventId);
+                    dataset.requests++;
+                } catch (RuntimeException e) {
+                    dataset.rejectedRequests++;
+                }
+            }
+        }
+        for (Long userId : dataset.userIds) {
+            for (int i = 0; i < config.getSubscriptionsPerUser(); i++) {
+                long friendId = dataset.randomUser(random);
+                if (friendId != userId) {
+                    subscriptionService.create(userId, friendId);
+                    dataset.subscriptions++;
+                }
+            }
+        }
+        for (int i = 0; (i < config.getCompilations()) && !dataset.publishedEventIds.isEmpty(); i++) {
+            Set<Long> events = new HashSet<>();
+            for (int j = 0; j < 5; j++) {
+                events.add(dataset.randomPublishedEvent(random));
+            }
+            compilationService.create(CreateCompilationDto.builder()
+                    .title("compilation " + i)
+                    .pinned(i % 2 == 0)
+                    .events(events)
+                    .build());
+        }
+        return dataset;
+    }
+
+    private CreateEventDto randomEvent(long categoryId) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        LocalDateTime eventDate = LocalDateTime.now().plusDays(1 + random.nextInt(60)).withNano(0);
+        return CreateEventDto.builder()
+                .title("The " + word)
+                .annotation("Annotation of the " + word + " for everyone who likes it")
+                .description("A long description of the " + word + ". ".repeat(20 + random.nextInt(200)))
+                .eventDate(DateTime.dateTimeToString(eventDate))
+                .location(new Location(random.nextFloat() * 90, random.nextFloat() * 180))
+                .paid(random.nextBoolean())
+                .participantLimit(random.nextBoolean() ? 0 : 5 + random.nextInt(50))
+                .requestModeration(random.nextBoolean())
+                .category(categoryId)
+                .build();
+    }
+
+    @Getter
+    public static class Dataset {
+        private final List<Long> userIds = new ArrayList<>();
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final List<Long> eventIds = new ArrayList<>();
+        private final List<Long> publishedEventIds = new ArrayList<>();
+        private final List<Long> eventOwners = new ArrayList<>();
+        private int requests;
+        private int rejectedRequests;
+        private int subscriptions;
+
+        public long randomUser(Random random) {
+            return userIds.get(random.nextInt(userIds.size()));
+        }
+
+        public long randomCategory(Random random) {
+            return categoryIds.get(random.nextInt(categoryIds.size()));
+        }
+
+        public long randomPublishedEvent(Random random) {
+            return publishedEventIds.get(random.nextInt(publishedEventIds.size()));
+        }
+
+        public long randomEventOwner(Random random) {
+            return eventOwners.get(random.nextInt(eventOwners.size()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class EndpointMix {
+    private final List<WeightedEndpoint> endpoints;
+    private final int totalWeight;
+
+    private EndpointMix(List<WeightedEndpoint> endpoints) {
+        this.endpoints = endpoints;
+        this.totalWeight = endpoints.stream().mapToInt(WeightedEndpoint::getWeight).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one endpoint must have a positive weight");
+        }
+    }
+
+    public static EndpointMix create(Map<String, Integer> overrides) {
+        List<WeightedEndpoint> endpoints = defaultEndpoints().stream()
+                .map(e -> overrides.containsKey(e.getName()) ? e.withWeight(overrides.get(e.getName())) : e)
+                .filter(e -> e.getWeight() > 0)
+                .collect(Collectors.toList());
+        return new EndpointMix(endpoints);
+    }
+
+    public WeightedEndpoint next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (WeightedEndpoint endpoint : endpoints) {
+            value -= endpoint.getWeight();
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    public List<WeightedEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    private static List<WeightedEndpoint> defaultEndpoints() {
+        List<WeightedEndpoint> list = new ArrayList<>();
+        list.add(new WeightedEndpoint("public.events.search", 25, "GET",
+                (d, r) -> "/events?from=0&size=10"));
+        list.add(new WeightedEndpoint("public.events.filter", 10, "GET",
+                (d, r) -> "/events?categories=" + d.randomCategory(r) + "&paid=" + r.nextBoolean()
+                        + "&onlyAvailable=true&sort=EVENT_DATE&from=0&size=10"));
+        list.add(new WeightedEndpoint("public.events.text", 5, "GET",
+                (d, r) -> "/events?text=festival&from=0&size=10"));
+        list.add(new WeightedEndpoint("public.events.byId", 25, "GET",
+                (d, r) -> "/events/" + d.randomPublishedEvent(r)));
+        list.add(new WeightedEndpoint("public.categories", 5, "GET",
+                (d, r) -> "/categories?from=0&size=10"));
+        list.add(new WeightedEndpoint("public.compilations", 5, "GET",
+                (d, r) -> "/compilations?from=0&size=10"));
+        list.add(new WeightedEndpoint("authorized.events", 5, "GET",
+                (d, r) -> "/users/" + d.randomEventOwner(r) + "/events?from=0&size=10"));
+        list.add(new WeightedEndpoint("authorized.requests", 3, "GET",
+                (d, r) -> "/users/" + d.randomUser(r) + "/requests"));
+        list.add(new WeightedEndpoint("authorized.requests.create", 2, "POST",
+                (d, r) -> "/users/" + d.randomUser(r) + "/requests?eventId=" + d.randomPublishedEvent(r)));
+        list.add(new WeightedEndpoint("authorized.subscription.events", 5, "GET",
+                (d, r) -> "/subscription/user/" + d.randomUser(r) + "/events"));
+        list.add(new WeightedEndpoint("admin.events", 3, "GET",
+                (d, r) -> "/admin/events?users=" + d.randomUser(r) + "&users=" + d.randomUser(r)
+                        + "&states=PUBLISHED&states=PENDING&from=0&size=10"));
+        list.add(new WeightedEndpoint("admin.users", 2, "GET",
+                (d, r) -> "/admin/users?ids=" + d.randomUser(r) + "&ids=" + d.randomUser(r) + "&from=0&size=10"));
+        return list;
+    }
+}
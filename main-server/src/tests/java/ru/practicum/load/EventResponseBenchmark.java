@@ -0,0 +1,110 @@
+package ru.practicum.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServerApp;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.dto.events.CreateEventDto;
+import ru.practicum.dto.events.Location;
+import ru.practicum.services.CategoryService;
+import ru.practicum.services.EventService;
+import ru.practicum.services.UserService;
+import ru.practicum.utilities.DateTime;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compares the body of {@code GET /events/{id}} built from the entity and serialized by Jackson with the body
+ * spliced from {@link ru.practicum.cache.EventResponseCache}. Both paths read the version the controller needs for
+ * the ETag, the confirmed request count and the views, so the difference is the entity load, the mapping and the
+ * serialization. Views come from embedded statistics, so a stats-server round trip does not hide that difference.
+ * Sizes are bench.events and bench.lookups, allocation is measured on the calling thread.
+ */
+@Slf4j
+public class EventResponseBenchmark {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int events = Integer.getInteger("bench.events", 500);
+        int lookups = Integer.getInteger("bench.lookups", 20_000);
+
+        String[] arguments = Stream.concat(Stream.of(LoadTestApp.serverArguments(config, "http://localhost:0")),
+                        Stream.of("--statistics.mode=embedded",
+                                "--spring.jpa.properties.hibernate.generate_statistics=false"))
+                .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(arguments)) {
+            EventService eventService = context.getBean(EventService.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            long categoryId = context.getBean(CategoryService.class)
+                    .create(new CategoryDto(null, "bench category")).getId();
+            long ownerId = context.getBean(UserService.class)
+                    .create(new UserDto(null, "bench owner", "bench-owner@bench.test")).getId();
+            List<Long> eventIds = new ArrayList<>(events);
+            for (int i = 0; i < events; i++) {
+                long eventId = eventService.create(ownerId, CreateEventDto.builder()
+                        .title("bench event " + i)
+                        .annotation("bench annotation " + i)
+                        .description("bench description ".repeat(50) + i)
+                        .eventDate(DateTime.dateTimeToString(LocalDateTime.now().plusDays(1)))
+                        .location(new Location(0, 0))
+                        .category(categoryId)
+                        .build()).getId();
+                eventService.publish(eventId);
+                eventIds.add(eventId);
+            }
+
+            Lookup entity = eventId -> {
+                eventService.getETag(eventId);
+                return objectMapper.writeValueAsBytes(eventService.findEventById(eventId));
+            };
+            Lookup cached = eventId -> eventService.findEventJson(eventId, eventService.getETag(eventId));
+            run(eventIds, Math.min(lookups, 5_000), entity, new LatencyRecorder());
+            run(eventIds, Math.min(lookups, 5_000), cached, new LatencyRecorder());
+
+            LatencyRecorder entityLatency = new LatencyRecorder();
+            LatencyRecorder cachedLatency = new LatencyRecorder();
+            long entityBytes = run(eventIds, lookups, entity, entityLatency);
+            long cachedBytes = run(eventIds, lookups, cached, cachedLatency);
+
+            System.out.printf("%-8s %9s %9s %9s %9s %12s%n", "path", "lookups", "p50 ms", "p99 ms", "max ms",
+                    "bytes/call");
+            print("entity", entityLatency, entityBytes);
+            print("cached", cachedLatency, cachedBytes);
+        }
+    }
+
+    private static long run(List<Long> eventIds, int lookups, Lookup lookup, LatencyRecorder recorder)
+            throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Random random = new Random(42);
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < lookups; i++) {
+            long eventId = eventIds.get(random.nextInt(eventIds.size()));
+            long start = System.nanoTime();
+            lookup.body(eventId);
+            recorder.record(System.nanoTime() - start, true);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - allocated) / lookups;
+    }
+
+    private static void print(String path, LatencyRecorder recorder, long bytesPerCall) {
+        System.out.printf("%-8s %9d %9.3f %9.3f %9.3f %12d%n", path, recorder.getCount(),
+                recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(100),
+                bytesPerCall);
+    }
+
+    private interface Lookup {
+        byte[] body(long eventId) throws Exception;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.MainServerApp;
+import ru.practicum.dto.events.EventShortDto;
+import ru.practicum.repositories.events.CombineEventFilters;
+import ru.practicum.repositories.events.EventRepository;
+import ru.practicum.repositories.events.EventShortProjection;
+import ru.practicum.search.EventSearchIndex;
+import ru.practicum.states.EventSortBy;
+import ru.practicum.states.EventState;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares public event search answered by {@link EventSearchIndex} with the JPQL search it replaces.
+ * The events are inserted with plain JDBC by a first context, a second one starts on the same database with the
+ * index enabled. Pages are compared as well; a few differences are expected where events share a date.
+ * Database settings are the load.* properties of {@link LoadTestApp}, sizes are bench.events, bench.users,
+ * bench.categories and bench.searches.
+ */
+@Slf4j
+public class EventSearchBenchmark {
+    private static final EventState[] STATES = {EventState.PUBLISHED, EventState.PUBLISHED, EventState.PUBLISHED,
+            EventState.PUBLISHED, EventState.PUBLISHED, EventState.PUBLISHED, EventState.PUBLISHED,
+            EventState.PENDING, EventState.CANCELED, EventState.FINISHED};
+    private static final int BATCH = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int events = Integer.getInteger("bench.events", 1_000_000);
+        int users = Integer.getInteger("bench.users", 1_000);
+        int categories = Integer.getInteger("bench.categories", 50);
+        int searches = Integer.getInteger("bench.searches", 300);
+        String[] arguments = Stream.concat(Stream.of(LoadTestApp.serverArguments(config, "http://localhost:0")),
+                        Stream.of("--events.search-index.enabled=true"))
+                .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(arguments)) {
+            long started = System.currentTimeMillis();
+            seed(new JdbcTemplate(context.getBean(DataSource.class)), events, users, categories);
+            log.info("Inserted {} events in {} ms", events, System.currentTimeMillis() - started);
+        }
+        String[] reopen = Stream.of(arguments)
+                .map(argument -> argument.startsWith("--spring.jpa.hibernate.ddl-auto=")
+                        ? "--spring.jpa.hibernate.ddl-auto=none" : argument)
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(reopen)) {
+            EventSearchIndex index = context.getBean(EventSearchIndex.class);
+            EventRepository repository = context.getBean(EventRepository.class);
+            long started = System.currentTimeMillis();
+            while (!index.isReady()) {
+                Thread.sleep(100);
+            }
+            log.info("Search index ready in {} ms", System.currentTimeMillis() - started);
+
+            List<CombineEventFilters> filters = randomFilters(new Random(42), searches, categories);
+            run(index, repository, filters.subList(0, Math.min(200, searches)), new LatencyRecorder(),
+                    new LatencyRecorder());
+            LatencyRecorder indexed = new LatencyRecorder();
+            LatencyRecorder database = new LatencyRecorder();
+            int differences = run(index, repository, filters, indexed, database);
+
+            System.out.printf("%-10s %9s %9s %9s %9s %9s%n", "source", "searches", "p50 ms", "p90 ms", "p99 ms",
+                    "max ms");
+            print("index", indexed);
+            print("database", database);
+            System.out.printf("%d of %d pages differ%n", differences, searches);
+        }
+    }
+
+    private static int run(EventSearchIndex index, EventRepository repository, List<CombineEventFilters> filters,
+                           LatencyRecorder indexed, LatencyRecorder database) {
+        int differences = 0;
+        for (CombineEventFilters filter : filters) {
+            long start = System.nanoTime();
+            List<Long> fromIndex = index.search(filter, EventSortBy.EVENT_DATE, 0, 10).orElseThrow().stream()
+                    .map(EventShortDto::getId)
+                    .collect(Collectors.toList());
+            indexed.record(System.nanoTime() - start, true);
+
+            start = System.nanoTime();
+            List<Long> fromDatabase = repository.shortSearchByFilters(filter, EventSortBy.EVENT_DATE,
+                            PageRequest.of(0, 10)).stream()
+                    .map(EventShortProjection::getId)
+                    .collect(Collectors.toList());
+            database.record(System.nanoTime() - start, true);
+            if (!fromIndex.equals(fromDatabase)) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    private static List<CombineEventFilters> randomFilters(Random random, int count, int categories) {
+        List<CombineEventFilters> filters = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            CombineEventFilters.CombineEventFiltersBuilder filter = CombineEventFilters.builder()
+                    .categories(random.longs(1 + random.nextInt(3), 1, categories + 1).boxed().toArray(Long[]::new));
+            if (random.nextBoolean()) {
+                filter.paid(random.nextBoolean());
+            }
+            if (random.nextInt(4) == 0) {
+                filter.onlyAvailable(true);
+            }
+            if (random.nextInt(3) == 0) {
+                LocalDateTime rangeStart = now.plusDays(random.nextInt(150));
+                filter.rangeStart(rangeStart).rangeEnd(rangeStart.plusDays(1 + random.nextInt(30)));
+            }
+            filters.add(filter.build());
+        }
+        return filters;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int events, int users, int categories) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "user " + i, "user" + i + "@bench.test"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= categories; i++) {
+            rows.add(new Object[]{i, "category " + i, 0});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (id, name, version) values (?, ?, ?)", rows);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Timestamp created = Timestamp.valueOf(now.minusDays(1));
+        List<Object[]> requests = new ArrayList<>();
+        for (int start = 1; start <= events; start += BATCH) {
+            rows.clear();
+            for (int id = start; id < Math.min(start + BATCH, events + 1); id++) {
+                EventState state = STATES[random.nextInt(STATES.length)];
+                int limit = (random.nextInt(20) == 0) ? 1 : 0;
+                rows.add(new Object[]{id, "event " + id, "annotation " + id, "description " + id,
+                        Timestamp.valueOf(now.plusSeconds(random.nextInt(180 * 24 * 3600))), created,
+                        (state == EventState.PENDING) ? null : created, random.nextBoolean(), limit,
+                        1 + random.nextInt(users), 1 + random.nextInt(categories), state.name()});
+                if ((limit > 0) && random.nextBoolean()) {
+                    requests.add(new Object[]{requests.size() + 1, 1 + random.nextInt(users), id, created});
+                }
+            }
+            jdbcTemplate.batchUpdate("insert into events (id, title, annotation, description, event_date, " +
+                    "created, published, lat, lon, paid, participant_limit, request_moderation, owner_id, " +
+                    "category_id, state, version) values (?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, false, ?, ?, ?, 0)", rows);
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, user_id, event_id, created, status) " +
+                "values (?, ?, ?, ?, 'CONFIRMED')", requests);
+    }
+
+    private static void print(String source, LatencyRecorder recorder) {
+        System.out.printf("%-10s %9d %9.2f %9.2f %9.2f %9.2f%n", source, recorder.getCount(),
+                recorder.percentileMillis(50), recorder.percentileMillis(90), recorder.percentileMillis(99),
+                recorder.percentileMillis(100));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package ru.practicum.load;
+
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@RequiredArgsConstructor
+public class LoadGenerator {
+    private final String baseUrl;
+    private final DatasetSeeder.Dataset dataset;
+    private final EndpointMix mix;
+    private final LoadTestConfig config;
+
+    public LoadReport run() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + Duration.ofSeconds(config.getWarmupSeconds()).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(config.getDurationSeconds()).toNanos();
+
+        List<Future<Map<String, LatencyRecorder>>> workers = new ArrayList<>();
+        for (int i = 0; i < config.getThreads(); i++) {
+            long seed = i;
+            workers.add(executor.submit(() -> runWorker(client, new Random(seed), measureFrom, deadline)));
+        }
+
+        Map<String, LatencyRecorder> merged = new TreeMap<>();
+        for (Future<Map<String, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((name, recorder) ->
+                    merged.computeIfAbsent(name, k -> new LatencyRecorder()).merge(recorder));
+        }
+        executor.shutdown();
+        return new LoadReport(merged, config.getDurationSeconds());
+    }
+
+    private Map<String, LatencyRecorder> runWorker(HttpClient client, Random random, long measureFrom,
+                                                   long deadline) {
+        Map<String, LatencyRecorder> recorders = new TreeMap<>();
+        while (System.nanoTime() < deadline) {
+            WeightedEndpoint endpoint = mix.next(random);
+            HttpRequest request = endpoint.buildRequest(baseUrl, dataset, random);
+            long begin = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 500;
+            } catch (Exception e) {
+                success = false;
+            }
+            long end = System.nanoTime();
+            if (begin >= measureFrom) {
+                recorders.computeIfAbsent(endpoint.getName(), k -> new LatencyRecorder())
+                        .record(end - begin, success);
+            }
+        }
+        return recorders;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.load;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class LoadReport {
+    private static final String ROW_FORMAT = "%-32s %9s %7s %10s %9s %9s %9s %9s %9s%n";
+
+    private final Map<String, LatencyRecorder> recorders;
+    private final int durationSeconds;
+
+    public void print(PrintStream out) {
+        out.printf(ROW_FORMAT, "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms",
+                "p99.9 ms", "max ms");
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach((name, recorder) -> {
+            printRow(out, name, recorder);
+            total.merge(recorder);
+        });
+        printRow(out, "TOTAL", total);
+    }
+
+    private void printRow(PrintStream out, String name, LatencyRecorder recorder) {
+        out.printf(ROW_FORMAT, name,
+                recorder.getCount(),
+                recorder.getErrors(),
+                String.format("%.1f", (double) recorder.getCount() / durationSeconds),
+                String.format("%.2f", recorder.percentileMillis(50)),
+                String.format("%.2f", recorder.percentileMillis(90)),
+                String.format("%.2f", recorder.percentileMillis(99)),
+                String.format("%.2f", recorder.percentileMillis(99.9)),
+                String.format("%.2f", recorder.percentileMillis(100)));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServerApp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+public class LoadTestApp {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        try (StubStatsServer statsServer = new StubStatsServer();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                     .run(serverArguments(config, statsServer.getUrl()))) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long seedStart = System.currentTimeMillis();
+            DatasetSeeder.Dataset dataset = new DatasetSeeder(context, config).seed();
+            log.info("Seeded {} users, {} categories, {} events ({} published), {} requests, {} subscriptions in {} ms",
+                    dataset.getUserIds().size(), dataset.getCategoryIds().size(), dataset.getEventIds().size(),
+                    dataset.getPublishedEventIds().size(), dataset.getRequests(), dataset.getSubscriptions(),
+                    System.currentTimeMillis() - seedStart);
+
+            EndpointMix mix = EndpointMix.create(config.getWeights());
+            log.info("Running {} threads for {} s after {} s of warm-up", config.getThreads(),
+                    config.getDurationSeconds(), config.getWarmupSeconds());
+            LoadReport report = new LoadGenerator("http://localhost:" + port, dataset, mix, config).run();
+            report.print(System.out);
+        }
+    }
+
+    static String[] serverArguments(LoadTestConfig config, String statsUrl) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("stats-server.url", statsUrl);
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("logging.level.org.hibernate.SQL", "warn");
+        properties.put("rate-limit.enabled", false);
+        if (config.isPostgres()) {
+            properties.put("spring.datasource.url", config.getDbUrl());
+            properties.put("spring.datasource.username", config.getDbUser());
+            properties.put("spring.datasource.password", config.getDbPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.PostgreSQLDialect");
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.put("spring.datasource.hikari.maximum-pool-size", Math.max(10, config.getThreads()));
+        return properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+}
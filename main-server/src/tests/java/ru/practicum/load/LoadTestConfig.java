@@ -0,0 +1,64 @@
+package ru.practicum.load;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+public class LoadTestConfig {
+    private final String database;
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int users;
+    private final int categories;
+    private final int eventsPerUser;
+    private final int requestsPerEvent;
+    private final int subscriptionsPerUser;
+    private final int compilations;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final Map<String, Integer> weights;
+
+    private LoadTestConfig() {
+        database = System.getProperty("load.db", "h2");
+        dbUrl = System.getProperty("load.db.url", "jdbc:postgresql://localhost:6542/ewm_main_service");
+        dbUser = System.getProperty("load.db.user", "postgres");
+        dbPassword = System.getProperty("load.db.password", "iamroot");
+        users = Integer.getInteger("load.users", 200);
+        categories = Integer.getInteger("load.categories", 10);
+        eventsPerUser = Integer.getInteger("load.events-per-user", 5);
+        requestsPerEvent = Integer.getInteger("load.requests-per-event", 3);
+        subscriptionsPerUser = Integer.getInteger("load.subscriptions-per-user", 3);
+        compilations = Integer.getInteger("load.compilations", 5);
+        threads = Integer.getInteger("load.threads", 16);
+        warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+        weights = parseWeights(System.getProperty("load.weights", ""));
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    public boolean isPostgres() {
+        return "postgres".equalsIgnoreCase(database);
+    }
+
+    private static Map<String, Integer> parseWeights(String value) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (value.isBlank()) {
+            return result;
+        }
+        for (String pair : value.split(",")) {
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Incorrect weight definition: " + pair);
+            }
+            result.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return result;
+    }
+}
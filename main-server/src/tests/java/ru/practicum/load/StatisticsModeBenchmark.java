@@ -0,0 +1,130 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServerApp;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Runs the event listing endpoints against main-server twice: with statistics.mode=http, talking to a stats-server
+ * started from its packaged jar on the same box, and with statistics.mode=embedded.
+ * Dataset and load settings are the load.* properties of {@link LoadTestApp}; build stats-server with mvn package first.
+ */
+@Slf4j
+public class StatisticsModeBenchmark {
+    private static final Set<String> LISTINGS = Set.of("public.events.search", "public.events.filter",
+            "public.events.text");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Map<String, LoadReport> reports = new LinkedHashMap<>();
+
+        int statsPort = freePort();
+        Process statsServer = startStatsServer(config, statsPort);
+        try {
+            reports.put("http", run(config, "http", "http://localhost:" + statsPort));
+        } finally {
+            statsServer.destroy();
+            statsServer.waitFor();
+        }
+        reports.put("embedded", run(config, "embedded", "http://localhost:0"));
+
+        reports.forEach((mode, report) -> {
+            System.out.println("statistics.mode=" + mode);
+            report.print(System.out);
+        });
+    }
+
+    private static LoadReport run(LoadTestConfig config, String mode, String statsUrl) throws Exception {
+        String[] arguments = Stream.concat(Stream.of(LoadTestApp.serverArguments(config, statsUrl)),
+                Stream.of("--statistics.mode=" + mode)).toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(arguments)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            DatasetSeeder.Dataset dataset = new DatasetSeeder(context, config).seed();
+            log.info("Running event listings with statistics.mode={}", mode);
+            return new LoadGenerator("http://localhost:" + port, dataset, listings(), config).run();
+        }
+    }
+
+    private static EndpointMix listings() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        EndpointMix.create(Map.of()).getEndpoints().stream()
+                .filter(endpoint -> !LISTINGS.contains(endpoint.getName()))
+                .forEach(endpoint -> weights.put(endpoint.getName(), 0));
+        return EndpointMix.create(weights);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Process startStatsServer(LoadTestConfig config, int port) throws Exception {
+        String jar = System.getProperty("bench.stats-jar",
+                "../stats-server/target/ewm-stats-service-0.0.1-SNAPSHOT.jar");
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar,
+                "--server.port=" + port,
+                "--spring.jpa.show-sql=false"));
+        if (config.isPostgres()) {
+            command.add("--spring.datasource.url=" + System.getProperty("bench.stats-db.url",
+                    "jdbc:postgresql://localhost:6541/ewm_stat_service?reWriteBatchedInserts=true"));
+            command.add("--spring.datasource.username=" + config.getDbUser());
+            command.add("--spring.datasource.password=" + config.getDbPassword());
+        } else {
+            command.add("--spring.datasource.url=jdbc:h2:mem:stats;DB_CLOSE_DELAY=-1");
+            command.add("--spring.datasource.username=sa");
+            command.add("--spring.datasource.password=");
+            command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            command.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        }
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/stats-server-benchmark.log"))
+                .start();
+        awaitStatsServer(process, port);
+        return process;
+    }
+
+    private static void awaitStatsServer(Process process, int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/stats/live?uris=/")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("stats-server exited, see target/stats-server-benchmark.log");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        process.destroy();
+        throw new IllegalStateException("stats-server did not start within " + STARTUP_TIMEOUT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.practicum.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StubStatsServer implements AutoCloseable {
+    private static final String APP_NAME = "service_for_finding_friends_to_go_anywhere";
+
+    private final HttpServer server;
+    private final ConcurrentHashMap<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+
+    public StubStatsServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hit", this::handleHit);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getHitCount(String uri) {
+        LongAdder counter = hits.get(uri);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleHit(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String uri = extractJsonField(body, "uri");
+        if (uri != null) {
+            hits.computeIfAbsent(uri, k -> new LongAdder()).increment();
+        }
+        respond(exchange, 200, "{}");
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        lookups.increment();
+        StringBuilder json = new StringBuilder("[");
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (!param.startsWith("uris=")) {
+                    continue;
+                }
+                String uri = URLDecoder.decode(param.substring("uris=".length()), StandardCharsets.UTF_8);
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("{\"app\":\"").append(APP_NAME)
+                        .append("\",\"uri\":\"").append(uri)
+                        .append("\",\"hits\":").append(getHitCount(uri)).append('}');
+            }
+        }
+        json.append(']');
+        respond(exchange, 200, json.toString());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static String extractJsonField(String json, String field) {
+        String key = "\"" + field + "\":\"";
+        int start = json.indexOf(key);
+        if (start < 0) {
+            return null;
+        }
+        start += key.length();
+        int end = json.indexOf('"', start);
+        return end < 0 ? null : json.substring(start, end);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.MainServerApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long main-server takes to reach steady latency after a start, with the startup warm-up on or off
+ * (bench.warm-up, on by default). A first context seeds the dataset through the services, a second one starts on the
+ * same database; its read paths are cold apart from the warm-up. Once readiness reports UP, bench.requests
+ * sequential requests alternate between {@code GET /events/{id}} and {@code GET /events}. Steady state is the first
+ * window of bench.window requests after which every window's median stays within 20% of the last one. Each mode has
+ * to run in a fresh JVM, otherwise the JIT is already warm. Views come from embedded statistics: every call to
+ * {@link StubStatsServer} waits for a delayed ACK, which would hide the difference.
+ */
+@Slf4j
+public class WarmUpBenchmark {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        boolean warmUp = Boolean.parseBoolean(System.getProperty("bench.warm-up", "true"));
+        int requests = Integer.getInteger("bench.requests", 5_000);
+        int window = Integer.getInteger("bench.window", 250);
+
+        String[] seeding = Stream.concat(Stream.of(LoadTestApp.serverArguments(config, "http://localhost:0")),
+                        Stream.of("--statistics.mode=embedded",
+                                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                                "--warm-up.enabled=false"))
+                .toArray(String[]::new);
+        DatasetSeeder.Dataset dataset;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(seeding)) {
+            dataset = new DatasetSeeder(context, config).seed();
+        }
+
+        String[] serving = Stream.concat(Stream.of(seeding)
+                                .filter(argument -> !argument.startsWith("--warm-up.enabled="))
+                                .map(argument -> argument.startsWith("--spring.jpa.hibernate.ddl-auto=")
+                                        ? "--spring.jpa.hibernate.ddl-auto=none" : argument),
+                        Stream.of("--warm-up.enabled=" + warmUp,
+                                "--management.endpoint.health.probes.enabled=true",
+                                "--management.endpoint.health.group.readiness.include=readinessState,warmUp"))
+                .toArray(String[]::new);
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServerApp.class)
+                .run(serving)) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newHttpClient();
+            long contextMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            while (send(httpClient, baseUrl + "/actuator/health/readiness") != 200) {
+                Thread.sleep(50);
+            }
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Ready {} ms after the start", readyMillis);
+
+            Random random = new Random(42);
+            long[] nanos = new long[requests];
+            long[] ends = new long[requests];
+            long first = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                String path = (i % 2 == 0)
+                        ? "/events/" + dataset.randomPublishedEvent(random)
+                        : "/events?categories=" + dataset.randomCategory(random) + "&from=0&size=10";
+                long start = System.nanoTime();
+                send(httpClient, baseUrl + path);
+                nanos[i] = System.nanoTime() - start;
+                ends[i] = System.nanoTime() - first;
+            }
+            report(warmUp, contextMillis, readyMillis, nanos, ends, window);
+        }
+    }
+
+    private static void report(boolean warmUp, long contextMillis, long readyMillis, long[] nanos, long[] ends,
+                               int window) {
+        List<LatencyRecorder> windows = new ArrayList<>();
+        for (int from = 0; from + window <= nanos.length; from += window) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            for (int i = from; i < from + window; i++) {
+                recorder.record(nanos[i], true);
+            }
+            windows.add(recorder);
+        }
+        double steadyMedian = windows.get(windows.size() - 1).percentileMillis(50);
+        int steadyFrom = windows.size() - 1;
+        while ((steadyFrom > 0) && (windows.get(steadyFrom - 1).percentileMillis(50) <= steadyMedian * 1.2)) {
+            steadyFrom--;
+        }
+
+        System.out.printf("warm-up %s: context started in %d ms, ready in %d ms%n", warmUp ? "on" : "off",
+                contextMillis, readyMillis);
+        System.out.printf("%9s %9s %9s %9s%n", "requests", "p50 ms", "p99 ms", "max ms");
+        for (int i = 0; i < windows.size(); i++) {
+            LatencyRecorder recorder = windows.get(i);
+            System.out.printf("%9d %9.2f %9.2f %9.2f%n", (i + 1) * window, recorder.percentileMillis(50),
+                    recorder.percentileMillis(99), recorder.percentileMillis(100));
+        }
+        long steadyAfter = (steadyFrom == 0) ? 0 : ends[steadyFrom * window - 1];
+        System.out.printf("steady p50 %.2f ms after %d requests, %d ms of traffic, %d ms after the start%n",
+                steadyMedian, steadyFrom * window, TimeUnit.NANOSECONDS.toMillis(steadyAfter),
+                readyMillis + TimeUnit.NANOSECONDS.toMillis(steadyAfter));
+    }
+
+    private static int send(HttpClient httpClient, String url) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+@Getter
+@RequiredArgsConstructor
+public class WeightedEndpoint {
+    private final String name;
+    private final int weight;
+    private final String method;
+    private final BiFunction<DatasetSeeder.Dataset, Random, String> pathGenerator;
+
+    public HttpRequest buildRequest(String baseUrl, DatasetSeeder.Dataset dataset, Random random) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathGenerator.apply(dataset, random)))
+                .header("Accept", "application/json")
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    public WeightedEndpoint withWeight(int newWeight) {
+        return new WeightedEndpoint(name, newWeight, method, pathGenerator);
+    }
+}
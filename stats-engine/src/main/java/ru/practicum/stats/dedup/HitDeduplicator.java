@@ -0,0 +1,121 @@
+package ru.practicum.stats.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.model.Statistics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drops a hit when the same ip already hit the same uri of the same app within the window.
+ * Keys live in two Bloom filters, the current and the previous window, so a repeat is always caught within
+ * one window and never later than two. Memory stays fixed at two filters sized for the expected hits per window;
+ * the price is that a false positive drops a first view, at the configured rate.
+ */
+@Slf4j
+@Component
+public class HitDeduplicator {
+    private final Clock clock;
+    private final long windowMillis;
+    private final long expectedHits;
+    private final double falsePositiveRate;
+    private final AtomicReference<Generations> generations = new AtomicReference<>();
+    private final Counter accepted;
+    private final Counter suppressed;
+
+    @Autowired
+    public HitDeduplicator(MeterRegistry registry,
+                           @Value("${statistics.dedup.window:0s}") Duration window,
+                           @Value("${statistics.dedup.expected-hits:1000000}") long expectedHits,
+                           @Value("${statistics.dedup.false-positive-rate:0.001}") double falsePositiveRate) {
+        this(registry, window, expectedHits, falsePositiveRate, Clock.systemUTC());
+    }
+
+    public HitDeduplicator(MeterRegistry registry, Duration window, long expectedHits, double falsePositiveRate,
+                           Clock clock) {
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.expectedHits = expectedHits;
+        this.falsePositiveRate = falsePositiveRate;
+        this.accepted = Counter.builder("statistics.dedup.hits")
+                .description("Hits passed to storage or suppressed as repeats")
+                .tag("result", "accepted")
+                .register(registry);
+        this.suppressed = Counter.builder("statistics.dedup.hits")
+                .description("Hits passed to storage or suppressed as repeats")
+                .tag("result", "suppressed")
+                .register(registry);
+        if (windowMillis > 0) {
+            BloomFilter current = new BloomFilter(expectedHits, falsePositiveRate);
+            generations.set(new Generations(current, null, clock.millis()));
+            Gauge.builder("statistics.dedup.memory", this, d -> 2 * current.getBits() / 8.0)
+                    .description("Memory held by the deduplication filters")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Returns true if the hit repeats one accepted within the window and should not be stored.
+     * The hit itself is not remembered until {@link #markAccepted} is called for it.
+     */
+    public boolean mightBeRepeat(Statistics statistics) {
+        if (windowMillis <= 0) {
+            return false;
+        }
+        Generations current = rotate(clock.millis());
+        String key = toKey(statistics);
+        boolean repeat = current.current.mightContain(key)
+                || ((current.previous != null) && current.previous.mightContain(key));
+        if (repeat) {
+            suppressed.increment();
+        }
+        return repeat;
+    }
+
+    /**
+     * Remembers a hit once storage has accepted it, so a hit the writer refused is not suppressed on retry.
+     */
+    public void markAccepted(Statistics statistics) {
+        accepted.increment();
+        if (windowMillis > 0) {
+            rotate(clock.millis()).current.put(toKey(statistics));
+        }
+    }
+
+    private static String toKey(Statistics statistics) {
+        return statistics.getApp() + '\n' + statistics.getUri() + '\n' + statistics.getIp();
+    }
+
+    private Generations rotate(long now) {
+        Generations current = generations.get();
+        while (now - current.startedAt >= windowMillis) {
+            Generations next = (now - current.startedAt >= 2 * windowMillis)
+                    ? new Generations(new BloomFilter(expectedHits, falsePositiveRate), null, now)
+                    : new Generations(new BloomFilter(expectedHits, falsePositiveRate), current.current,
+                    current.startedAt + windowMillis);
+            if (generations.compareAndSet(current, next)) {
+                log.info("Hit deduplication: {} hits accepted, {} suppressed so far", (long) accepted.count(),
+                        (long) suppressed.count());
+                return next;
+            }
+            current = generations.get();
+        }
+        return current;
+    }
+
+    @AllArgsConstructor
+    private static class Generations {
+        private final BloomFilter current;
+        private final BloomFilter previous;
+        private final long startedAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.stats.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvRecordWriter implements RecordWriter {
+    private final Writer writer;
+
+    CsvRecordWriter(OutputStream out) {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        writeRecord(columns);
+    }
+
+    @Override
+    public void writeRecord(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if ((text.indexOf(',') < 0) && (text.indexOf('"') < 0) && (text.indexOf('\n') < 0)
+                && (text.indexOf('\r') < 0)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
\ No newline at end of file
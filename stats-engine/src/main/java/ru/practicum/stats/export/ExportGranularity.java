@@ -0,0 +1,8 @@
+package ru.practicum.stats.export;
+
+public enum ExportGranularity {
+    RAW,
+    MINUTE,
+    HOUR,
+    DAY
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.stats.export;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class ExportQuery {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final ExportGranularity granularity;
+    private final String app;
+    private final String uriPrefix;
+    private final long after;
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package ru.practicum.stats.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonRecordWriter implements RecordWriter {
+    private final JsonGenerator generator;
+    private String[] columns;
+
+    NdjsonRecordWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader(String[] columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public void writeRecord(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            if (values[i] instanceof Number) {
+                generator.writeNumber(((Number) values[i]).longValue());
+            } else if (values[i] == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(values[i].toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
\ No newline at end of file
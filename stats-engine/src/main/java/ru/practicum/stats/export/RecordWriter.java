@@ -0,0 +1,11 @@
+package ru.practicum.stats.export;
+
+import java.io.IOException;
+
+interface RecordWriter {
+    void writeHeader(String[] columns) throws IOException;
+
+    void writeRecord(Object[] values) throws IOException;
+
+    void finish() throws IOException;
+}
\ No newline at end of file
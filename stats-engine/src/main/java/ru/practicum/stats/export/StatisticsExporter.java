@@ -0,0 +1,127 @@
+package ru.practicum.stats.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats.utilities.IpAddress;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ru.practicum.stats.utilities.DateTime.dateTimeToString;
+
+/**
+ * Streams hits or per-bucket aggregates straight from a database cursor to the client.
+ * The query runs in a read-only transaction with a fetch size, which is what makes the PostgreSQL driver
+ * fetch rows in portions instead of reading the whole result into memory.
+ */
+@Component
+public class StatisticsExporter {
+    private static final String[] HIT_COLUMNS = {"id", "app", "uri", "ip", "timestamp"};
+    private static final String[] BUCKET_COLUMNS = {"bucket", "app", "uri", "hits", "uniqueIps"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public StatisticsExporter(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${statistics.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Rejects a query the export cannot answer; called before the response starts streaming.
+     */
+    public void check(ExportQuery query) {
+        if ((query.getAfter() > 0) && (query.getGranularity() != ExportGranularity.RAW)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "after resumes RAW exports only, resume an aggregate export with start");
+        }
+    }
+
+    public void export(ExportQuery query, ExportFormat format, OutputStream out) throws IOException {
+        check(query);
+        RecordWriter writer = (format == ExportFormat.CSV)
+                ? new CsvRecordWriter(out)
+                : new NdjsonRecordWriter(objectMapper, out);
+        boolean raw = query.getGranularity() == ExportGranularity.RAW;
+        writer.writeHeader(raw ? HIT_COLUMNS : BUCKET_COLUMNS);
+
+        List<Object> params = new ArrayList<>();
+        String sql = raw ? buildHitsQuery(query, params) : buildBucketsQuery(query, params);
+        RowCallbackHandler handler = raw
+                ? rs -> write(writer, new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3),
+                IpAddress.fromBytes(rs.getBytes(4)), format(rs.getTimestamp(5))})
+                : rs -> write(writer, new Object[]{format(rs.getTimestamp(1)), rs.getString(2), rs.getString(3),
+                rs.getLong(4), rs.getLong(5)});
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, params.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private String buildHitsQuery(ExportQuery query, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT h.id, a.name, u.path, h.ip, h.time FROM hits h " +
+                "JOIN apps a ON a.id = h.app_id JOIN uris u ON u.id = h.uri_id WHERE h.id > ?");
+        params.add(query.getAfter());
+        appendFilters(sql, query, params);
+        return sql.append(" ORDER BY h.id").toString();
+    }
+
+    private String buildBucketsQuery(ExportQuery query, List<Object> params) {
+        String bucket = "DATE_TRUNC('" + query.getGranularity().name().toLowerCase() + "', h.time)";
+        StringBuilder sql = new StringBuilder("SELECT " + bucket + " AS bucket, a.name, u.path, COUNT(*), " +
+                "COUNT(DISTINCT h.ip) FROM hits h JOIN apps a ON a.id = h.app_id JOIN uris u ON u.id = h.uri_id " +
+                "WHERE 1 = 1");
+        appendFilters(sql, query, params);
+        return sql.append(" GROUP BY ").append(bucket).append(", a.name, u.path ORDER BY bucket, a.name, u.path")
+                .toString();
+    }
+
+    private void appendFilters(StringBuilder sql, ExportQuery query, List<Object> params) {
+        sql.append(" AND h.time >= ? AND h.time <= ?");
+        params.add(Timestamp.valueOf(query.getStart()));
+        params.add(Timestamp.valueOf(query.getEnd()));
+        if (query.getApp() != null) {
+            sql.append(" AND a.name = ?");
+            params.add(query.getApp());
+        }
+        if (query.getUriPrefix() != null) {
+            sql.append(" AND u.path LIKE ? ESCAPE '\\'");
+            params.add(query.getUriPrefix().replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_") + "%");
+        }
+    }
+
+    private static void write(RecordWriter writer, Object[] values) {
+        try {
+            writer.writeRecord(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(Timestamp timestamp) {
+        return dateTimeToString(timestamp.toLocalDateTime());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package ru.practicum.stats.live;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats.model.LiveStats;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hits of the last fifteen minutes per uri, counted in memory as they are accepted by /hit.
+ * Uris with no hits within the horizon are evicted, and at most {@code statistics.live.max-uris} are tracked;
+ * hits of further uris are not counted until room frees up. Counts start from zero on restart.
+ */
+@Component
+public class LiveViewCounter {
+    private static final int HORIZON_SECONDS = 15 * 60;
+    private static final int[] WINDOWS = {60, 5 * 60, HORIZON_SECONDS};
+
+    private final Clock clock;
+    private final int maxUris;
+    private final Map<String, SecondCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+    private final Counter untracked;
+
+    @Autowired
+    public LiveViewCounter(MeterRegistry registry, @Value("${statistics.live.max-uris:10000}") int maxUris) {
+        this(registry, maxUris, Clock.systemUTC());
+    }
+
+    public LiveViewCounter(MeterRegistry registry, int maxUris, Clock clock) {
+        this.clock = clock;
+        this.maxUris = maxUris;
+        this.lastSweep = new AtomicLong(now());
+        Gauge.builder("statistics.live.uris", counters, Map::size)
+                .description("Uris with live counters")
+                .register(registry);
+        this.untracked = Counter.builder("statistics.live.untracked")
+                .description("Hits not counted live because the uri limit was reached")
+                .register(registry);
+    }
+
+    public void record(String uri) {
+        long now = now();
+        if ((now - lastSweep.get() >= HORIZON_SECONDS)
+                || ((counters.size() >= maxUris) && !counters.containsKey(uri) && (now > lastSweep.get()))) {
+            sweep(now);
+        }
+        SecondCounter counter = counters.compute(uri, (key, existing) -> {
+            if ((existing == null) && (counters.size() >= maxUris)) {
+                return null;
+            }
+            SecondCounter result = (existing == null) ? new SecondCounter(HORIZON_SECONDS, now) : existing;
+            result.add(now);
+            return result;
+        });
+        if (counter == null) {
+            untracked.increment();
+        }
+    }
+
+    public List<LiveStats> get(String[] uris) {
+        long now = now();
+        List<LiveStats> result = new ArrayList<>(uris.length);
+        for (String uri : uris) {
+            SecondCounter counter = counters.get(uri);
+            long[] sums = (counter == null) ? new long[WINDOWS.length] : counter.sum(now, WINDOWS);
+            result.add(new LiveStats(uri, sums[0], sums[1], sums[2]));
+        }
+        return result;
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if ((now > last) && lastSweep.compareAndSet(last, now)) {
+            counters.keySet().forEach(uri -> counters.computeIfPresent(uri,
+                    (key, counter) -> counter.isIdle(now) ? null : counter));
+        }
+    }
+
+    private long now() {
+        return clock.millis() / 1000;
+    }
+}
\ No newline at end of file
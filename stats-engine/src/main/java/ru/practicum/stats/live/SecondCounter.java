@@ -0,0 +1,63 @@
+package ru.practicum.stats.live;
+
+/**
+ * Per-second hit counts of one uri over the last {@code horizon} seconds, kept in a ring indexed by epoch second.
+ * Slots are cleared lazily as time moves forward, so a counter costs one int per second of the horizon.
+ */
+class SecondCounter {
+    private final int[] counts;
+    private long lastSecond;
+    private long lastHit;
+
+    SecondCounter(int horizon, long now) {
+        this.counts = new int[horizon];
+        this.lastSecond = now;
+        this.lastHit = now;
+    }
+
+    synchronized void add(long second) {
+        advance(second);
+        lastHit = Math.max(lastHit, second);
+        if (lastSecond - second < counts.length) {
+            counts[slot(second)]++;
+        }
+    }
+
+    /**
+     * Returns the hits of the last {@code windows[i]} seconds up to and including {@code now}, in one pass.
+     * Windows must be ascending.
+     */
+    synchronized long[] sum(long now, int[] windows) {
+        advance(now);
+        long[] sums = new long[windows.length];
+        long sum = 0;
+        int second = 0;
+        for (int i = 0; i < windows.length; i++) {
+            int window = Math.min(windows[i], counts.length);
+            for (; second < window; second++) {
+                sum += counts[slot(now - second)];
+            }
+            sums[i] = sum;
+        }
+        return sums;
+    }
+
+    synchronized boolean isIdle(long now) {
+        return now - lastHit >= counts.length;
+    }
+
+    private void advance(long second) {
+        if (second <= lastSecond) {
+            return;
+        }
+        long cleared = Math.min(second - lastSecond, counts.length);
+        for (long s = second - cleared + 1; s <= second; s++) {
+            counts[slot(s)] = 0;
+        }
+        lastSecond = second;
+    }
+
+    private int slot(long second) {
+        return (int) Math.floorMod(second, (long) counts.length);
+    }
+}
\ No newline at end of file
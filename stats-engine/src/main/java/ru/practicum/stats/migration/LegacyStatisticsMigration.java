@@ -0,0 +1,126 @@
+package ru.practicum.stats.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.repository.HitDictionary;
+import ru.practicum.stats.utilities.IpAddress;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves rows of the old text-only statistics table into hits, chunk by chunk.
+ * Every chunk is inserted and deleted from the old table in one transaction, so an interrupted run can be restarted.
+ * The emptied table is dropped at the end. Rows without a time never matched any period and are skipped.
+ * On PostgreSQL the table and index sizes before and after are logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "statistics.migration.enabled", havingValue = "true")
+public class LegacyStatisticsMigration implements ApplicationRunner {
+    private static final String SELECT_CHUNK = "SELECT id, app, uri, ip, time FROM statistics " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT = "INSERT INTO hits (app_id, uri_id, ip, time) VALUES (?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.INTEGER, Types.INTEGER, Types.VARBINARY, Types.TIMESTAMP};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HitDictionary dictionary;
+    private final int chunkSize;
+
+    public LegacyStatisticsMigration(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     HitDictionary dictionary,
+                                     @Value("${statistics.migration.chunk-size:10000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionary = dictionary;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    public long migrate() {
+        if (!legacyTableExists()) {
+            log.info("Statistics migration: no legacy statistics table");
+            return 0;
+        }
+        String before = describeSize("statistics");
+        long migrated = 0;
+        long skipped = 0;
+        long lastId = 0;
+        while (true) {
+            List<LegacyRow> rows = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> new LegacyRow(rs.getLong("id"),
+                    rs.getString("app"), rs.getString("uri"), rs.getString("ip"), rs.getTimestamp("time")),
+                    lastId, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> hits = new ArrayList<>(rows.size());
+            for (LegacyRow row : rows) {
+                if (row.time == null) {
+                    skipped++;
+                    continue;
+                }
+                hits.add(new Object[]{dictionary.getAppId(row.app), dictionary.getUriId(row.uri),
+                        IpAddress.toBytes(row.ip), row.time});
+            }
+            long chunkEnd = rows.get(rows.size() - 1).id;
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT, hits, INSERT_TYPES);
+                jdbcTemplate.update("DELETE FROM statistics WHERE id <= ?", chunkEnd);
+            });
+            migrated += hits.size();
+            lastId = chunkEnd;
+            log.info("Statistics migration: {} rows moved, last id {}", migrated, lastId);
+        }
+        jdbcTemplate.execute("DROP TABLE statistics");
+        log.info("Statistics migration finished: {} rows moved, {} rows without time skipped", migrated, skipped);
+        log.info("Statistics migration: legacy statistics {}; hits {}, apps {}, uris {}", before,
+                describeSize("hits"), describeSize("apps"), describeSize("uris"));
+        return migrated;
+    }
+
+    private boolean legacyTableExists() {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statistics WHERE id < 0", Long.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private String describeSize(String table) {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+        if (!postgres) {
+            return "size unknown";
+        }
+        return jdbcTemplate.queryForObject("SELECT 'table ' || pg_size_pretty(pg_relation_size(?::regclass)) || " +
+                "', indexes ' || pg_size_pretty(pg_indexes_size(?::regclass))", String.class, table, table);
+    }
+
+    @AllArgsConstructor
+    private static class LegacyRow {
+        private final long id;
+        private final String app;
+        private final String uri;
+        private final String ip;
+        private final Timestamp time;
+    }
+}
\ No newline at end of file
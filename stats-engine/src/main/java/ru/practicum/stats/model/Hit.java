@@ -1,4 +1,4 @@
-package ru.practicum.model;
+package ru.practicum.stats.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,21 +13,21 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "statistics")
-public class Statistics {
+@Table(name = "hits")
+public class Hit {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "app", nullable = false, length = 100)
-    private String app;
+    @Column(name = "app_id", nullable = false)
+    private Integer appId;
 
-    @Column(name = "uri", nullable = false, length = 250)
-    private String uri;
+    @Column(name = "uri_id", nullable = false)
+    private Integer uriId;
 
-    @Column(name = "ip", nullable = false, length = 50)
-    private String ip;
+    @Column(name = "ip", nullable = false)
+    private byte[] ip;
 
     @Column(name = "time", nullable = false)
     private LocalDateTime timestamp;
@@ -0,0 +1,13 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LiveStats {
+    private String uri;
+    private Long lastMinute;
+    private Long lastFiveMinutes;
+    private Long lastFifteenMinutes;
+}
\ No newline at end of file
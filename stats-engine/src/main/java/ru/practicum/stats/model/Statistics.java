@@ -0,0 +1,15 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Getter
+public class Statistics {
+    private final String app;
+    private final String uri;
+    private final String ip;
+    private final LocalDateTime timestamp;
+}
\ No newline at end of file
@@ -1,8 +1,8 @@
-package ru.practicum.model;
+package ru.practicum.stats.model;
 
 import java.time.LocalDateTime;
 
-import static ru.practicum.utilities.DateTime.stringToDateTime;
+import static ru.practicum.stats.utilities.DateTime.stringToDateTime;
 
 public class StatisticsMapper {
     public static Statistics toStatistics(EndpointHit endpointHit) {
@@ -10,8 +10,7 @@ public class StatisticsMapper {
                 ? LocalDateTime.now()
                 : stringToDateTime(endpointHit.getTimestamp());
 
-        return new Statistics(null,
-                endpointHit.getApp(),
+        return new Statistics(endpointHit.getApp(),
                 endpointHit.getUri(),
                 endpointHit.getIp(),
                 hitTime);
@@ -0,0 +1,12 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TimeBucket {
+    private String start;
+    private Long hits;
+    private Long uniqueHits;
+}
\ No newline at end of file
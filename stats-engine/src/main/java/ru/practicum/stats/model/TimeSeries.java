@@ -0,0 +1,14 @@
+package ru.practicum.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TimeSeries {
+    private String app;
+    private String uri;
+    private List<TimeBucket> buckets;
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.stats.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps app names and uris to the ids of their rows in the apps and uris dictionaries.
+ * Ids never change once assigned, so they are cached for good; new values are inserted on first use.
+ */
+@Repository
+public class HitDictionary {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate insertTemplate;
+    private final Dictionary apps;
+    private final Dictionary uris;
+
+    public HitDictionary(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${statistics.dictionary.cache-size:100000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTemplate = new TransactionTemplate(transactionManager);
+        this.insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.apps = new Dictionary("apps", "name", cacheSize);
+        this.uris = new Dictionary("uris", "path", cacheSize);
+    }
+
+    public int getAppId(String app) {
+        return getOrCreate(apps, app);
+    }
+
+    public int getUriId(String uri) {
+        return getOrCreate(uris, uri);
+    }
+
+    public Optional<Integer> findUriId(String uri) {
+        return find(uris, uri);
+    }
+
+    public String getAppName(int id) {
+        String cached = apps.names.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        String name = jdbcTemplate.queryForObject(apps.selectById, String.class, id);
+        if (apps.names.size() < apps.cacheSize) {
+            apps.names.put(id, name);
+        }
+        return name;
+    }
+
+    private int getOrCreate(Dictionary dictionary, String value) {
+        Optional<Integer> id = find(dictionary, value);
+        if (id.isPresent()) {
+            return id.get();
+        }
+        try {
+            insertTemplate.executeWithoutResult(status -> jdbcTemplate.update(dictionary.insert, value));
+        } catch (DuplicateKeyException e) {
+            // inserted concurrently by another writer
+        }
+        return find(dictionary, value).orElseThrow();
+    }
+
+    private Optional<Integer> find(Dictionary dictionary, String value) {
+        Integer cached = dictionary.ids.get(value);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<Integer> ids = jdbcTemplate.queryForList(dictionary.select, Integer.class, value);
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        if (dictionary.ids.size() < dictionary.cacheSize) {
+            dictionary.ids.put(value, ids.get(0));
+        }
+        return Optional.of(ids.get(0));
+    }
+
+    private static class Dictionary {
+        private final String select;
+        private final String selectById;
+        private final String insert;
+        private final int cacheSize;
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+        Dictionary(String table, String column, int cacheSize) {
+            this.select = "SELECT id FROM " + table + " WHERE " + column + " = ?";
+            this.selectById = "SELECT " + column + " FROM " + table + " WHERE id = ?";
+            this.insert = "INSERT INTO " + table + " (" + column + ") VALUES (?)";
+            this.cacheSize = cacheSize;
+        }
+    }
+}
\ No newline at end of file
@@ -1,4 +1,4 @@
-package ru.practicum.repository;
+package ru.practicum.stats.repository;
 
 public interface Info {
     Long getCountAll();
@@ -0,0 +1,18 @@
+package ru.practicum.stats.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.stats.model.Hit;
+
+import java.time.LocalDateTime;
+
+public interface StatisticRepository extends JpaRepository<Hit, Long> {
+
+    @Query(nativeQuery = true,
+            value = "SELECT a.name AS appName, COUNT(*) AS countAll, " +
+                    "COUNT(DISTINCT h.ip) AS countUniqueIp FROM hits h " +
+                    "JOIN apps a ON a.id = h.app_id " +
+                    "WHERE h.time >= :start AND h.time <= :end AND h.uri_id = :uriId " +
+                    "GROUP BY a.name")
+    Info getStatistics(LocalDateTime start, LocalDateTime end, int uriId);
+}
\ No newline at end of file
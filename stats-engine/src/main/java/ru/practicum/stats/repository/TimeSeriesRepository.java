@@ -0,0 +1,116 @@
+package ru.practicum.stats.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.model.TimeBucket;
+import ru.practicum.stats.model.TimeSeries;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ru.practicum.stats.utilities.DateTime.dateTimeToString;
+
+/**
+ * Builds per-bucket hit and unique ip counts in one pass over the (uri_id, time, app_id, ip) index.
+ * Rows come ordered by uri and time, so every series only keeps the ips of its current bucket;
+ * doing the same with GROUP BY and COUNT(DISTINCT) costs the database an extra sort per request.
+ */
+@Repository
+public class TimeSeriesRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HitDictionary hitDictionary;
+
+    public TimeSeriesRepository(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                HitDictionary hitDictionary) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.hitDictionary = hitDictionary;
+    }
+
+    public List<TimeSeries> getTimeSeries(LocalDateTime start, LocalDateTime end, long stepSeconds,
+                                          Map<Integer, String> uriById) {
+        String sql = "SELECT h.uri_id, h.time, h.app_id, h.ip FROM hits h WHERE h.uri_id IN (" +
+                String.join(", ", Collections.nCopies(uriById.size(), "?")) + ") " +
+                "AND h.time >= ? AND h.time <= ? ORDER BY h.uri_id, h.time";
+        List<Object> params = new ArrayList<>(uriById.keySet());
+        params.add(Timestamp.valueOf(start));
+        params.add(Timestamp.valueOf(end));
+
+        long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+        Map<Long, Accumulator> accumulators = new LinkedHashMap<>();
+        RowCallbackHandler handler = rs -> {
+            int uriId = rs.getInt(1);
+            long second = rs.getTimestamp(2).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+            int appId = rs.getInt(3);
+            Accumulator accumulator = accumulators.computeIfAbsent(((long) uriId << 32) | appId,
+                    key -> new Accumulator(new TimeSeries(hitDictionary.getAppName(appId), uriById.get(uriId),
+                            new ArrayList<>()), start, stepSeconds));
+            accumulator.add((second - startSecond) / stepSeconds, rs.getBytes(4));
+        };
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, params.toArray()));
+
+        Map<String, List<TimeSeries>> seriesByUri = new HashMap<>();
+        for (Accumulator accumulator : accumulators.values()) {
+            accumulator.flush();
+            seriesByUri.computeIfAbsent(accumulator.series.getUri(), uri -> new ArrayList<>())
+                    .add(accumulator.series);
+        }
+        List<TimeSeries> result = new ArrayList<>();
+        uriById.values().forEach(uri -> result.addAll(seriesByUri.getOrDefault(uri, List.of())));
+        return result;
+    }
+
+    private static class Accumulator {
+        private final TimeSeries series;
+        private final LocalDateTime start;
+        private final long stepSeconds;
+        private final Set<ByteBuffer> ips = new HashSet<>();
+        private long bucket = -1;
+        private long hits;
+
+        Accumulator(TimeSeries series, LocalDateTime start, long stepSeconds) {
+            this.series = series;
+            this.start = start;
+            this.stepSeconds = stepSeconds;
+        }
+
+        void add(long hitBucket, byte[] ip) {
+            if (hitBucket != bucket) {
+                flush();
+                bucket = hitBucket;
+            }
+            hits++;
+            ips.add(ByteBuffer.wrap(ip));
+        }
+
+        void flush() {
+            if (hits == 0) {
+                return;
+            }
+            series.getBuckets().add(new TimeBucket(dateTimeToString(start.plusSeconds(bucket * stepSeconds)),
+                    hits, (long) ips.size()));
+            hits = 0;
+            ips.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.LiveStats;
+import ru.practicum.stats.model.Statistics;
+import ru.practicum.stats.model.TimeSeries;
+import ru.practicum.stats.model.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StatisticsService {
+    void add(EndpointHit endpointHit);
+
+    void add(Statistics statistics);
+
+    List<ViewStats> getStatistic(String start, String end, String[] uris, boolean unique);
+
+    List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique);
+
+    List<TimeSeries> getTimeSeries(String start, String end, String[] uris, String interval);
+
+    List<LiveStats> getLiveStatistic(String[] uris);
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats.dedup.HitDeduplicator;
+import ru.practicum.stats.live.LiveViewCounter;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.LiveStats;
+import ru.practicum.stats.model.Statistics;
+import ru.practicum.stats.model.StatisticsMapper;
+import ru.practicum.stats.model.TimeSeries;
+import ru.practicum.stats.model.ViewStats;
+import ru.practicum.stats.repository.HitDictionary;
+import ru.practicum.stats.repository.Info;
+import ru.practicum.stats.repository.StatisticRepository;
+import ru.practicum.stats.repository.TimeSeriesRepository;
+import ru.practicum.stats.writer.HitWriter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static ru.practicum.stats.utilities.DateTime.stringToDateTime;
+
+@RequiredArgsConstructor
+@Service
+public class StatisticsServiceImpl implements StatisticsService {
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final StatisticRepository statisticRepository;
+    private final HitDictionary hitDictionary;
+    private final TimeSeriesRepository timeSeriesRepository;
+    private final HitDeduplicator hitDeduplicator;
+    private final HitWriter hitWriter;
+    private final LiveViewCounter liveViewCounter;
+
+    @Override
+    public void add(EndpointHit endpointHit) {
+        add(StatisticsMapper.toStatistics(endpointHit));
+    }
+
+    @Override
+    public void add(Statistics statistics) {
+        if (hitDeduplicator.mightBeRepeat(statistics)) {
+            return;
+        }
+        try {
+            hitWriter.write(statistics).join();
+        } catch (CompletionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to write the hit", e.getCause());
+        }
+        hitDeduplicator.markAccepted(statistics);
+        liveViewCounter.record(statistics.getUri());
+    }
+
+    @Override
+    public List<ViewStats> getStatistic(String start, String end, String[] uris, boolean unique) {
+        return getStatistic(stringToDateTime(start), stringToDateTime(end), uris, unique);
+    }
+
+    @Override
+    public List<ViewStats> getStatistic(LocalDateTime start, LocalDateTime end, String[] uris, boolean unique) {
+        List<ViewStats> result = new ArrayList<>();
+
+        Arrays.stream(uris).forEach(uri -> {
+            Optional<ViewStats> stat = getViewStatistic(start, end, uri, unique);
+            stat.ifPresent(result::add);
+        });
+        return result;
+    }
+
+    @Override
+    public List<TimeSeries> getTimeSeries(String start, String end, String[] uris, String interval) {
+        LocalDateTime startDate = stringToDateTime(start);
+        LocalDateTime endDate = stringToDateTime(end);
+        long step = parseInterval(interval);
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must not be before start");
+        }
+        if (Duration.between(startDate, endDate).getSeconds() / step >= MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Too many buckets, use a longer interval or a shorter period");
+        }
+
+        Map<Integer, String> uriById = new LinkedHashMap<>();
+        for (String uri : uris) {
+            hitDictionary.findUriId(uri).ifPresent(id -> uriById.put(id, uri));
+        }
+        if (uriById.isEmpty()) {
+            return List.of();
+        }
+        return timeSeriesRepository.getTimeSeries(startDate, endDate, step, uriById);
+    }
+
+    @Override
+    public List<LiveStats> getLiveStatistic(String[] uris) {
+        return liveViewCounter.get(uris);
+    }
+
+    private long parseInterval(String interval) {
+        Duration step;
+        try {
+            step = DurationStyle.detectAndParse(interval);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect interval: " + interval);
+        }
+        if (step.getSeconds() < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Interval must be at least one second");
+        }
+        return step.getSeconds();
+    }
+
+    private Optional<ViewStats> getViewStatistic(LocalDateTime start, LocalDateTime end,
+                                                 String uri, boolean unique) {
+        Optional<Integer> uriId = hitDictionary.findUriId(uri);
+        if (uriId.isEmpty()) {
+            return Optional.empty();
+        }
+        Info info = statisticRepository.getStatistics(start, end, uriId.get());
+
+        if (info == null) {
+            return Optional.empty();
+        }
+        long count = unique ? info.getCountUniqueIp() : info.getCountAll();
+        return Optional.of(new ViewStats(info.getAppName(), uri, count));
+    }
+}
\ No newline at end of file
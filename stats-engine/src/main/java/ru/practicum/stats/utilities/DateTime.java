@@ -1,4 +1,4 @@
-package ru.practicum.utilities;
+package ru.practicum.stats.utilities;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
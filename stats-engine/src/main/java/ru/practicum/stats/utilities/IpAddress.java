@@ -0,0 +1,56 @@
+package ru.practicum.stats.utilities;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+public class IpAddress {
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    /**
+     * Packs an IPv4 address into 4 bytes and an IPv6 one into 16; IPv4-mapped IPv6 addresses collapse to IPv4.
+     * Only literals are parsed, so no name lookup ever happens. Anything else is kept as its UTF-8 text
+     * so that it still counts as a distinct ip.
+     */
+    public static byte[] toBytes(String value) {
+        if (IPV4.matcher(value).matches()) {
+            byte[] address = parseIpv4(value);
+            if (address != null) {
+                return address;
+            }
+        } else if (IPV6.matcher(value).matches()) {
+            try {
+                return InetAddress.getByName(value).getAddress();
+            } catch (UnknownHostException e) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String fromBytes(byte[] value) {
+        if ((value.length == 4) || (value.length == 16)) {
+            try {
+                return InetAddress.getByAddress(value).getHostAddress();
+            } catch (UnknownHostException e) {
+                return new String(value, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] parseIpv4(String value) {
+        String[] octets = value.split("\\.");
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            int octet = Integer.parseInt(octets[i]);
+            if (octet > 255) {
+                return null;
+            }
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+}
\ No newline at end of file
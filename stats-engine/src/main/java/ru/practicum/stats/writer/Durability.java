@@ -0,0 +1,6 @@
+package ru.practicum.stats.writer;
+
+public enum Durability {
+    ACK_AFTER_FLUSH,
+    ACK_ON_ENQUEUE
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package ru.practicum.stats.writer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats.model.Statistics;
+import ru.practicum.stats.repository.HitDictionary;
+import ru.practicum.stats.utilities.IpAddress;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues incoming hits and writes them from a single thread, one transaction per batch.
+ * App and uri are stored as dictionary ids, resolved before the batch transaction starts.
+ * A batch is closed when it reaches the batch size or when the oldest queued hit has waited for the flush interval;
+ * with a zero interval the writer takes whatever has piled up while the previous batch was being committed.
+ */
+@Slf4j
+@Component
+public class HitWriter {
+    private static final String INSERT = "INSERT INTO hits (app_id, uri_id, ip, time) VALUES (?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {Types.INTEGER, Types.INTEGER, Types.VARBINARY, Types.TIMESTAMP};
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HitDictionary dictionary;
+    private final TransactionTemplate transactionTemplate;
+    private final Durability durability;
+    private final int batchSize;
+    private final int capacity;
+    private final long flushIntervalNanos;
+    private final ConcurrentLinkedQueue<PendingHit> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread thread = new Thread(this::run, "hit-writer");
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+    private final Counter failedHits;
+    private volatile boolean running = true;
+    private volatile int wakeUpDepth = Integer.MAX_VALUE;
+
+    public HitWriter(JdbcTemplate jdbcTemplate,
+                     HitDictionary dictionary,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry registry,
+                     @Value("${statistics.writer.durability:ACK_AFTER_FLUSH}") Durability durability,
+                     @Value("${statistics.writer.batch-size:500}") int batchSize,
+                     @Value("${statistics.writer.capacity:100000}") int capacity,
+                     @Value("${statistics.writer.flush-interval-ms:0}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.durability = durability;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        Gauge.builder("statistics.writer.queue.depth", depth, AtomicInteger::get)
+                .description("Hits waiting to be written")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("statistics.writer.batch.size")
+                .description("Hits written per transaction")
+                .register(registry);
+        this.flushTimer = Timer.builder("statistics.writer.flush")
+                .description("Time to insert and commit one batch")
+                .register(registry);
+        this.failedHits = Counter.builder("statistics.writer.failed")
+                .description("Hits lost because their batch failed to commit")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Returns a future completed once the hit is committed, or an already completed one
+     * when hits are acknowledged on enqueue.
+     */
+    public CompletableFuture<Void> write(Statistics statistics) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Statistics writer is stopped");
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Statistics queue is full");
+        }
+        CompletableFuture<Void> ack = (durability == Durability.ACK_AFTER_FLUSH) ? new CompletableFuture<>() : null;
+        queue.add(new PendingHit(statistics, ack));
+        if (depth.get() >= wakeUpDepth) {
+            LockSupport.unpark(thread);
+        }
+        return (ack == null) ? CompletableFuture.completedFuture(null) : ack;
+    }
+
+    private void run() {
+        List<PendingHit> batch = new ArrayList<>(batchSize);
+        while (running || depth.get() > 0) {
+            if (depth.get() == 0) {
+                park(1, IDLE_PARK_NANOS);
+                continue;
+            }
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            while (running && (depth.get() < batchSize)) {
+                long wait = deadline - System.nanoTime();
+                if (wait <= 0) {
+                    break;
+                }
+                park(batchSize, wait);
+            }
+            PendingHit hit;
+            while ((batch.size() < batchSize) && ((hit = queue.poll()) != null)) {
+                batch.add(hit);
+            }
+            if (!batch.isEmpty()) {
+                depth.addAndGet(-batch.size());
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void park(int untilDepth, long nanos) {
+        wakeUpDepth = untilDepth;
+        if (running && (depth.get() < untilDepth)) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        wakeUpDepth = Integer.MAX_VALUE;
+    }
+
+    private void flush(List<PendingHit> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (PendingHit hit : batch) {
+                Statistics statistics = hit.getStatistics();
+                rows.add(new Object[]{
+                        dictionary.getAppId(statistics.getApp()),
+                        dictionary.getUriId(statistics.getUri()),
+                        IpAddress.toBytes(statistics.getIp()),
+                        Timestamp.valueOf(statistics.getTimestamp())});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, rows, INSERT_TYPES));
+            batch.forEach(PendingHit::complete);
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} hits", batch.size(), e);
+            failedHits.increment(batch.size());
+            batch.forEach(hit -> hit.fail(e));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+}
\ No newline at end of file
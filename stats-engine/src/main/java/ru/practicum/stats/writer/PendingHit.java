@@ -0,0 +1,26 @@
+package ru.practicum.stats.writer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.stats.model.Statistics;
+
+import java.util.concurrent.CompletableFuture;
+
+@Getter
+@AllArgsConstructor
+class PendingHit {
+    private final Statistics statistics;
+    private final CompletableFuture<Void> ack;
+
+    void complete() {
+        if (ack != null) {
+            ack.complete(null);
+        }
+    }
+
+    void fail(Throwable cause) {
+        if (ack != null) {
+            ack.completeExceptionally(cause);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS apps (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    CONSTRAINT pk_app PRIMARY KEY(id),
+    CONSTRAINT uq_app_name UNIQUE(name)
+);
+
+CREATE TABLE IF NOT EXISTS uris (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    path VARCHAR(250) NOT NULL,
+    CONSTRAINT pk_uri PRIMARY KEY(id),
+    CONSTRAINT uq_uri_path UNIQUE(path)
+);
+
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    app_id INTEGER NOT NULL REFERENCES apps(id),
+    uri_id INTEGER NOT NULL REFERENCES uris(id),
+    ip BYTEA NOT NULL,
+    time TIMESTAMP NOT NULL,
+    CONSTRAINT pk_hit PRIMARY KEY(id)
+);
+
+DROP INDEX IF EXISTS idx_hits_uri_time;
+
+CREATE INDEX IF NOT EXISTS idx_hits_uri_time_app_ip ON hits (uri_id, time, app_id, ip);
\ No newline at end of file
@@ -1,21 +1,40 @@
 package ru.practicum.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.model.EndpointHit;
-import ru.practicum.model.ViewStats;
-import ru.practicum.service.StatisticsService;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.stats.export.ExportFormat;
+import ru.practicum.stats.export.ExportGranularity;
+import ru.practicum.stats.export.ExportQuery;
+import ru.practicum.stats.export.StatisticsExporter;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.LiveStats;
+import ru.practicum.stats.model.TimeSeries;
+import ru.practicum.stats.model.ViewStats;
+import ru.practicum.stats.service.StatisticsService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static ru.practicum.stats.utilities.DateTime.stringToDateTime;
 
 @RestController
 @Validated
 public class StatisticsController {
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final StatisticsService statisticService;
+    private final StatisticsExporter statisticsExporter;
 
-    public StatisticsController(StatisticsService statisticService) {
+    public StatisticsController(StatisticsService statisticService, StatisticsExporter statisticsExporter) {
         this.statisticService = statisticService;
+        this.statisticsExporter = statisticsExporter;
     }
 
     @PostMapping(value = "/hit")
@@ -31,4 +50,54 @@ public class StatisticsController {
             @RequestParam(required = false, defaultValue = "false") boolean unique) {
         return statisticService.getStatistic(start, end, uris, unique);
     }
+
+    @GetMapping(value = "/stats/timeseries")
+    public List<TimeSeries> getTimeSeries(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam String[] uris,
+            @RequestParam String interval) {
+        return statisticService.getTimeSeries(start, end, uris, interval);
+    }
+
+    @GetMapping(value = "/stats/live")
+    public List<LiveStats> getLiveStatistic(@RequestParam String[] uris) {
+        return statisticService.getLiveStatistic(uris);
+    }
+
+    @GetMapping(value = "/stats/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false, defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false, defaultValue = "RAW") ExportGranularity granularity,
+            @RequestParam(required = false) String app,
+            @RequestParam(required = false) String uriPrefix,
+            @PositiveOrZero @RequestParam(required = false, defaultValue = "0") long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportQuery query = ExportQuery.builder()
+                .start(stringToDateTime(start))
+                .end(stringToDateTime(end))
+                .granularity(granularity)
+                .app(app)
+                .uriPrefix(uriPrefix)
+                .after(after)
+                .build();
+        statisticsExporter.check(query);
+        boolean gzip = (acceptEncoding != null) && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream stream = gzip
+                    ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE)
+                    : new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+            statisticsExporter.export(query, format, stream);
+            stream.close();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
\ No newline at end of file
@@ -1,17 +1,53 @@
 package ru.practicum;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.model.EndpointHit;
-import ru.practicum.model.ViewStats;
-import ru.practicum.service.StatisticsService;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats.dedup.BloomFilter;
+import ru.practicum.stats.dedup.HitDeduplicator;
+import ru.practicum.stats.export.ExportFormat;
+import ru.practicum.stats.export.ExportGranularity;
+import ru.practicum.stats.export.ExportQuery;
+import ru.practicum.stats.export.StatisticsExporter;
+import ru.practicum.stats.live.LiveViewCounter;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.LiveStats;
+import ru.practicum.stats.model.Statistics;
+import ru.practicum.stats.model.TimeBucket;
+import ru.practicum.stats.model.TimeSeries;
+import ru.practicum.stats.model.ViewStats;
+import ru.practicum.stats.migration.LegacyStatisticsMigration;
+import ru.practicum.stats.repository.HitDictionary;
+import ru.practicum.stats.service.StatisticsService;
+import ru.practicum.stats.service.StatisticsServiceImpl;
+import ru.practicum.stats.writer.Durability;
+import ru.practicum.stats.writer.HitWriter;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SpringBootTest
 @Transactional
@@ -19,6 +55,10 @@ import java.util.List;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class StatisticTests {
     private final StatisticsService statisticsService;
+    private final HitDictionary hitDictionary;
+    private final StatisticsExporter statisticsExporter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
 
     @Test
     public void add() {
@@ -38,4 +78,277 @@ public class StatisticTests {
         Assertions.assertNotNull(viewStatistics);
         Assertions.assertEquals(1, viewStatistics.size());
     }
+
+    @Test
+    public void shouldWriteConcurrentHitsInBatches() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> senders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String ip = "10.0.0." + i;
+            senders.add(executor.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    statisticsService.add(EndpointHit.builder()
+                            .app("app")
+                            .uri("/test/batch")
+                            .ip(ip)
+                            .timestamp("2022-06-01 10:00:00")
+                            .build());
+                }
+            }));
+        }
+        for (Future<?> sender : senders) {
+            sender.get();
+        }
+        executor.shutdown();
+
+        String[] urisList = {"/test/batch"};
+        List<ViewStats> all = statisticsService.getStatistic("2022-01-01 00:00:00", "2022-12-31 23:59:59",
+                urisList, false);
+        List<ViewStats> unique = statisticsService.getStatistic("2022-01-01 00:00:00", "2022-12-31 23:59:59",
+                urisList, true);
+
+        Assertions.assertEquals(400, all.get(0).getHits());
+        Assertions.assertEquals(8, unique.get(0).getHits());
+    }
+
+    @Test
+    public void shouldMigrateLegacyStatistics() {
+        jdbcTemplate.execute("CREATE TABLE statistics (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "app VARCHAR(100) NOT NULL, uri VARCHAR(250) NOT NULL, ip VARCHAR(50) NOT NULL, time TIMESTAMP)");
+        String insert = "INSERT INTO statistics (app, uri, ip, time) VALUES (?, ?, ?, ?)";
+        jdbcTemplate.update(insert, "app", "/test/legacy", "192.168.1.1", "2022-03-01 10:00:00");
+        jdbcTemplate.update(insert, "app", "/test/legacy", "192.168.1.1", "2022-03-02 10:00:00");
+        jdbcTemplate.update(insert, "app", "/test/legacy", "::ffff:192.168.1.1", "2022-03-03 10:00:00");
+        jdbcTemplate.update(insert, "app", "/test/legacy", "2001:db8::1", "2022-03-04 10:00:00");
+        jdbcTemplate.update(insert, "app", "/test/legacy", "2001:db8::1", null);
+
+        long migrated = new LegacyStatisticsMigration(jdbcTemplate, transactionManager, hitDictionary, 2).migrate();
+
+        String[] urisList = {"/test/legacy"};
+        List<ViewStats> all = statisticsService.getStatistic("2022-01-01 00:00:00", "2022-12-31 23:59:59",
+                urisList, false);
+        List<ViewStats> unique = statisticsService.getStatistic("2022-01-01 00:00:00", "2022-12-31 23:59:59",
+                urisList, true);
+        Assertions.assertEquals(4, migrated);
+        Assertions.assertEquals("app", all.get(0).getApp());
+        Assertions.assertEquals(4, all.get(0).getHits());
+        Assertions.assertEquals(2, unique.get(0).getHits());
+    }
+
+    @Test
+    public void shouldExportHitsAndBuckets() throws Exception {
+        String[][] hits = {
+                {"export", "/export/1", "10.1.0.1", "2022-04-01 10:05:00"},
+                {"export", "/export/1", "10.1.0.2", "2022-04-01 10:15:00"},
+                {"export", "/export/2", "10.1.0.1", "2022-04-01 11:05:00"},
+                {"export", "/export_3", "10.1.0.1", "2022-04-01 11:10:00"},
+                {"other", "/export/1", "2001:db8::1", "2022-04-01 11:20:00"}};
+        for (String[] hit : hits) {
+            statisticsService.add(new EndpointHit(null, hit[0], hit[1], hit[2], hit[3]));
+        }
+        LocalDateTime start = LocalDateTime.of(2022, 4, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2022, 4, 2, 0, 0);
+
+        String[] raw = export(ExportQuery.builder()
+                .start(start)
+                .end(end)
+                .granularity(ExportGranularity.RAW)
+                .uriPrefix("/export/")
+                .build(), ExportFormat.NDJSON);
+        Assertions.assertEquals(4, raw.length);
+        Assertions.assertTrue(raw[0].matches("\\{\"id\":\\d+,\"app\":\"export\",\"uri\":\"/export/1\"," +
+                "\"ip\":\"10.1.0.1\",\"timestamp\":\"2022-04-01 10:05:00\"}"));
+        Assertions.assertTrue(raw[3].contains("\"ip\":\"2001:db8:0:0:0:0:0:1\""));
+
+        long second = Long.parseLong(raw[1].substring(6, raw[1].indexOf(',')));
+        String[] resumed = export(ExportQuery.builder()
+                .start(start)
+                .end(end)
+                .granularity(ExportGranularity.RAW)
+                .uriPrefix("/export/")
+                .after(second)
+                .build(), ExportFormat.NDJSON);
+        Assertions.assertArrayEquals(new String[]{raw[2], raw[3]}, resumed);
+
+        String[] buckets = export(ExportQuery.builder()
+                .start(start)
+                .end(end)
+                .granularity(ExportGranularity.HOUR)
+                .app("export")
+                .build(), ExportFormat.CSV);
+        Assertions.assertArrayEquals(new String[]{
+                "bucket,app,uri,hits,uniqueIps",
+                "2022-04-01 10:00:00,export,/export/1,2,2",
+                "2022-04-01 11:00:00,export,/export/2,1,1",
+                "2022-04-01 11:00:00,export,/export_3,1,1"}, buckets);
+
+        ResponseStatusException rejected = Assertions.assertThrows(ResponseStatusException.class,
+                () -> export(ExportQuery.builder()
+                        .start(start)
+                        .end(end)
+                        .granularity(ExportGranularity.HOUR)
+                        .after(second)
+                        .build(), ExportFormat.CSV));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatus());
+    }
+
+    @Test
+    public void shouldBuildTimeSeries() {
+        String[][] hits = {
+                {"/series/1", "10.2.0.1", "2022-05-01 10:00:00"},
+                {"/series/1", "10.2.0.1", "2022-05-01 10:00:59"},
+                {"/series/1", "10.2.0.2", "2022-05-01 10:01:00"},
+                {"/series/1", "10.2.0.1", "2022-05-01 10:14:59"},
+                {"/series/2", "10.2.0.3", "2022-05-01 10:30:00"},
+                {"/series/2", "10.2.0.3", "2022-05-01 11:00:00"}};
+        for (String[] hit : hits) {
+            statisticsService.add(new EndpointHit(null, "series", hit[0], hit[1], hit[2]));
+        }
+
+        List<TimeSeries> series = statisticsService.getTimeSeries("2022-05-01 10:00:00", "2022-05-01 10:59:59",
+                new String[]{"/series/2", "/series/1", "/series/unknown"}, "15m");
+
+        Assertions.assertEquals(2, series.size());
+        Assertions.assertEquals("/series/2", series.get(0).getUri());
+        Assertions.assertEquals(List.of(new TimeBucket("2022-05-01 10:30:00", 1L, 1L)), series.get(0).getBuckets());
+        Assertions.assertEquals("series", series.get(1).getApp());
+        Assertions.assertEquals(List.of(new TimeBucket("2022-05-01 10:00:00", 4L, 2L)), series.get(1).getBuckets());
+
+        List<TimeSeries> minutes = statisticsService.getTimeSeries("2022-05-01 10:00:00", "2022-05-01 10:59:59",
+                new String[]{"/series/1"}, "1m");
+        Assertions.assertEquals(List.of(
+                new TimeBucket("2022-05-01 10:00:00", 2L, 1L),
+                new TimeBucket("2022-05-01 10:01:00", 1L, 1L),
+                new TimeBucket("2022-05-01 10:14:00", 1L, 1L)), minutes.get(0).getBuckets());
+    }
+
+    @Test
+    public void shouldSuppressRepeatHitsWithinWindow() {
+        AtomicLong now = new AtomicLong();
+        Clock clock = clock(now);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HitDeduplicator deduplicator = new HitDeduplicator(registry, Duration.ofMinutes(10), 1000, 0.001, clock);
+        Statistics first = new Statistics("app", "/events/1", "10.3.0.1", LocalDateTime.now());
+        Statistics otherIp = new Statistics("app", "/events/1", "10.3.0.2", LocalDateTime.now());
+        Statistics otherUri = new Statistics("app", "/events/2", "10.3.0.1", LocalDateTime.now());
+
+        Assertions.assertFalse(deduplicator.mightBeRepeat(first));
+        Assertions.assertFalse(deduplicator.mightBeRepeat(first));
+        deduplicator.markAccepted(first);
+        Assertions.assertTrue(deduplicator.mightBeRepeat(first));
+        Assertions.assertFalse(isRepeat(deduplicator, otherIp));
+        Assertions.assertFalse(isRepeat(deduplicator, otherUri));
+        now.addAndGet(Duration.ofMinutes(11).toMillis());
+        Assertions.assertTrue(isRepeat(deduplicator, first));
+        now.addAndGet(Duration.ofMinutes(21).toMillis());
+        Assertions.assertFalse(isRepeat(deduplicator, first));
+
+        Assertions.assertEquals(4, registry.get("statistics.dedup.hits").tag("result", "accepted").counter().count());
+        Assertions.assertEquals(2, registry.get("statistics.dedup.hits").tag("result", "suppressed").counter().count());
+    }
+
+    @Test
+    public void shouldAnswerServiceUnavailableWhenHitBatchFails() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HitDeduplicator deduplicator = new HitDeduplicator(registry, Duration.ofMinutes(10), 1000, 0.001,
+                Clock.systemUTC());
+        HitWriter failingWriter = new HitWriter(jdbcTemplate, hitDictionary, transactionManager, registry,
+                Durability.ACK_AFTER_FLUSH, 500, 100_000, 0) {
+            @Override
+            public CompletableFuture<Void> write(Statistics statistics) {
+                return CompletableFuture.failedFuture(new DataAccessResourceFailureException("Database is down"));
+            }
+        };
+        StatisticsService service = new StatisticsServiceImpl(null, hitDictionary, null, deduplicator,
+                failingWriter, new LiveViewCounter(registry, 2, Clock.systemUTC()));
+        Statistics hit = new Statistics("app", "/events/1", "10.4.0.1", LocalDateTime.now());
+
+        ResponseStatusException e = Assertions.assertThrows(ResponseStatusException.class, () -> service.add(hit));
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        Assertions.assertTrue(e.getCause() instanceof DataAccessResourceFailureException);
+        Assertions.assertFalse(deduplicator.mightBeRepeat(hit));
+    }
+
+    @Test
+    public void shouldKeepBloomFilterFalsePositivesNearTheTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("/events/" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(filter.mightContain("/events/" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("/events/" + i)) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void shouldCountLiveViewsAndEvictIdleUris() {
+        AtomicLong now = new AtomicLong(Duration.ofDays(1).toMillis());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LiveViewCounter counter = new LiveViewCounter(registry, 2, clock(now));
+
+        counter.record("/events/1");
+        now.addAndGet(Duration.ofMinutes(3).toMillis());
+        counter.record("/events/1");
+        counter.record("/events/1");
+        counter.record("/events/2");
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        counter.record("/events/3");
+
+        Assertions.assertEquals(List.of(
+                new LiveStats("/events/1", 2L, 3L, 3L),
+                new LiveStats("/events/2", 1L, 1L, 1L),
+                new LiveStats("/events/3", 0L, 0L, 0L)), counter.get(new String[]{"/events/1", "/events/2", "/events/3"}));
+        Assertions.assertEquals(1, registry.get("statistics.live.untracked").counter().count());
+
+        now.addAndGet(Duration.ofMinutes(12).toMillis());
+        Assertions.assertEquals(List.of(new LiveStats("/events/1", 0L, 0L, 2L)),
+                counter.get(new String[]{"/events/1"}));
+
+        now.addAndGet(Duration.ofMinutes(3).toMillis());
+        counter.record("/events/3");
+        Assertions.assertEquals(1, registry.get("statistics.live.uris").gauge().value());
+        Assertions.assertEquals(List.of(
+                new LiveStats("/events/1", 0L, 0L, 0L),
+                new LiveStats("/events/3", 1L, 1L, 1L)), counter.get(new String[]{"/events/1", "/events/3"}));
+    }
+
+    private static boolean isRepeat(HitDeduplicator deduplicator, Statistics statistics) {
+        if (deduplicator.mightBeRepeat(statistics)) {
+            return true;
+        }
+        deduplicator.markAccepted(statistics);
+        return false;
+    }
+
+    private static Clock clock(AtomicLong now) {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+    }
+
+    private String[] export(ExportQuery query, ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statisticsExporter.export(query, format, out);
+        return out.toString(StandardCharsets.UTF_8).split("\r?\n");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package ru.practicum.load;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.StatsServerApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Posts hits to a locally started stats-server and prints ingest throughput per write mode and concurrency.
+ * "per-hit" keeps a batch size of one, which is what one transaction per hit used to cost.
+ */
+public class HitIngestBenchmark {
+    private static final String ROW_FORMAT = "%-16s %11s %10s %9s %9s %11s%n";
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrency = Arrays.stream(System.getProperty("bench.concurrency", "1,16,256").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        int warmupSeconds = Integer.getInteger("bench.warmup-seconds", 3);
+        int durationSeconds = Integer.getInteger("bench.duration-seconds", 10);
+
+        Map<String, String[]> modes = new LinkedHashMap<>();
+        modes.put("per-hit", new String[]{"ACK_AFTER_FLUSH", "1"});
+        modes.put("ack-after-flush", new String[]{"ACK_AFTER_FLUSH", "500"});
+        modes.put("ack-on-enqueue", new String[]{"ACK_ON_ENQUEUE", "500"});
+
+        System.out.printf(ROW_FORMAT, "mode", "concurrency", "hits/s", "p50 ms", "p99 ms", "batch mean");
+        for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StatsServerApp.class)
+                    .run(serverArguments(mode.getKey(), mode.getValue()[0], mode.getValue()[1]))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                MeterRegistry registry = context.getBean(MeterRegistry.class);
+                for (int threads : concurrency) {
+                    run("http://localhost:" + port + "/hit", threads, warmupSeconds);
+                    drain(registry);
+                    DistributionSummary batches = registry.get("statistics.writer.batch.size").summary();
+                    long batchCount = batches.count();
+                    double batchTotal = batches.totalAmount();
+                    LatencyRecorder recorder = run("http://localhost:" + port + "/hit", threads, durationSeconds);
+                    drain(registry);
+                    double batchMean = (batches.totalAmount() - batchTotal) / Math.max(1, batches.count() - batchCount);
+                    System.out.printf(ROW_FORMAT, mode.getKey(), threads,
+                            String.format("%.0f", (double) recorder.getCount() / durationSeconds),
+                            String.format("%.2f", recorder.percentileMillis(50)),
+                            String.format("%.2f", recorder.percentileMillis(99)),
+                            String.format("%.1f", batchMean));
+                }
+            }
+        }
+    }
+
+    private static LatencyRecorder run(String url, int threads, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<LatencyRecorder>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String body = "{\"app\":\"bench\",\"uri\":\"/events/" + i + "\",\"ip\":\"10.0.0." + (i % 256) + "\"}";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            workers.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    recorder.record(System.nanoTime() - begin, response.statusCode() == 200);
+                }
+                return recorder;
+            }));
+        }
+        LatencyRecorder merged = new LatencyRecorder();
+        for (Future<LatencyRecorder> worker : workers) {
+            merged.merge(worker.get());
+        }
+        executor.shutdown();
+        return merged;
+    }
+
+    private static void drain(MeterRegistry registry) throws InterruptedException {
+        while (registry.get("statistics.writer.queue.depth").gauge().value() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static String[] serverArguments(String name, String durability, String batchSize) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("server.tomcat.threads.max", 512);
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        if ("postgres".equalsIgnoreCase(System.getProperty("bench.db", "h2"))) {
+            properties.put("spring.datasource.url", System.getProperty("bench.db.url",
+                    "jdbc:postgresql://localhost:6541/ewm_stat_service?reWriteBatchedInserts=true"));
+            properties.put("spring.datasource.username", System.getProperty("bench.db.user", "postgres"));
+            properties.put("spring.datasource.password", System.getProperty("bench.db.password", "iamroot"));
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.put("statistics.writer.durability", durability);
+        properties.put("statistics.writer.batch-size", batchSize);
+        return properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+}
\ No newline at end of file